@@ -0,0 +1,133 @@
+package net.rimoto.intlphoneinput.demo;
+
+import android.app.Activity;
+import android.app.Instrumentation;
+import android.content.Intent;
+import android.support.annotation.Nullable;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import net.rimoto.intlphoneinput.Countries;
+import net.rimoto.intlphoneinput.Country;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that the build-time compiled country table matches countries.json, copied to the test assets, and
+ * reports, without asserting on them, the cost of each registry source and the time-to-first-frame of
+ * {@link MainActivity} with the table against parsing the JSON on the main thread before the launch.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CountryTableStartupTest {
+    private static final String TAG = "CountryTableStartup";
+    private static final int ROUNDS = 5;
+
+    @Test
+    public void compiledTableMatchesJson() throws Exception {
+        // Cold registry: first touch of Countries runs its static initializer, first parse loads the JSON classes
+        long start = System.nanoTime();
+        int size = Countries.COUNTRIES.size();
+        long tableNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        List<Country> parsed = parseJson();
+        long jsonNanos = System.nanoTime() - start;
+
+        assertEquals(parsed.size(), size);
+        for (int i = 0; i < size; i++) {
+            assertEquals(parsed.get(i).getIso(), Countries.COUNTRIES.get(i).getIso());
+            assertEquals(parsed.get(i).getDialCode(), Countries.COUNTRIES.get(i).getDialCode());
+        }
+
+        // Warm launches of both variants, alternated so both see the same process and cache state
+        launchToFirstFrame(null);
+        Runnable parse = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    parseJson();
+                } catch (Exception e) {
+                    throw new AssertionError(e);
+                }
+            }
+        };
+        long[] tableFrameNanos = new long[ROUNDS];
+        long[] jsonFrameNanos = new long[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            tableFrameNanos[round] = launchToFirstFrame(null);
+            jsonFrameNanos[round] = launchToFirstFrame(parse);
+        }
+
+        Log.i(TAG, String.format("cold registry: table %dus, json %dus; warm first frame (median of %d): table %dus, json %dus",
+                tableNanos / 1000, jsonNanos / 1000, ROUNDS, median(tableFrameNanos) / 1000, median(jsonFrameNanos) / 1000));
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    /**
+     * Start the activity and wait until the main thread is idle after its first traversal
+     *
+     * @param beforeLaunch run on the main thread before the launch, i.e. loading the registry | null
+     * @return elapsed nanoseconds
+     */
+    private long launchToFirstFrame(@Nullable Runnable beforeLaunch) {
+        Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+        Intent intent = new Intent(InstrumentationRegistry.getTargetContext(), MainActivity.class)
+                .addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+
+        long start = System.nanoTime();
+        if (beforeLaunch != null) {
+            instrumentation.runOnMainSync(beforeLaunch);
+        }
+        Activity activity = instrumentation.startActivitySync(intent);
+        instrumentation.waitForIdleSync();
+        long elapsed = System.nanoTime() - start;
+
+        activity.finish();
+        instrumentation.waitForIdleSync();
+        return elapsed;
+    }
+
+    /**
+     * The runtime JSON path the compiled table replaced
+     */
+    private List<Country> parseJson() throws Exception {
+        InputStream in = InstrumentationRegistry.getContext().getAssets().open("countries.json");
+        StringBuilder builder = new StringBuilder();
+        try {
+            Reader reader = new InputStreamReader(in, "UTF-8");
+            char[] buffer = new char[8192];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                builder.append(buffer, 0, read);
+            }
+        } finally {
+            in.close();
+        }
+
+        JSONArray array = new JSONArray(builder.toString());
+        List<Country> countries = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject item = array.getJSONObject(i);
+            countries.add(new Country(item.getString("name"), item.getString("iso2"),
+                    Integer.parseInt(item.getString("dialCode")), item.optInt("priority", 0)));
+        }
+        return countries;
+    }
+}
@@ -0,0 +1,90 @@
+package net.rimoto.intlphoneinput.benchmark;
+
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.Phonenumber;
+
+import net.rimoto.intlphoneinput.BulkNormalizer;
+import net.rimoto.intlphoneinput.PhoneNumberEngine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Normalizing an address book of example numbers of every region, international and national,
+ * on one thread against one thread per core
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BulkNormalizeBenchmark {
+    @Param({"50000"})
+    public int size;
+
+    private List<String> mNumbers;
+    private ForkJoinPool mSequentialPool;
+    private BulkNormalizer mSequential;
+    private BulkNormalizer mParallel;
+
+    @Setup
+    public void setUp() {
+        PhoneNumberUtil phoneUtil = PhoneNumberUtil.getInstance();
+        List<String> samples = new ArrayList<>();
+        for (String region : phoneUtil.getSupportedRegions()) {
+            Phonenumber.PhoneNumber example = phoneUtil.getExampleNumber(region);
+            if (example != null) {
+                samples.add(phoneUtil.format(example, PhoneNumberUtil.PhoneNumberFormat.INTERNATIONAL));
+                samples.add(phoneUtil.format(example, PhoneNumberUtil.PhoneNumberFormat.NATIONAL));
+            }
+        }
+        mNumbers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            mNumbers.add(samples.get(i % samples.size()));
+        }
+
+        PhoneNumberEngine engine = PhoneNumberEngine.getDefault();
+        mSequentialPool = new ForkJoinPool(1);
+        mSequential = new BulkNormalizer(engine, mSequentialPool, BulkNormalizer.DEFAULT_CHUNK_SIZE);
+        mParallel = new BulkNormalizer(engine);
+        // Load the metadata of every region outside of the measurement
+        normalize(mSequential, null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        mSequentialPool.shutdown();
+    }
+
+    @Benchmark
+    public void sequential(Blackhole blackhole) {
+        normalize(mSequential, blackhole);
+    }
+
+    @Benchmark
+    public void parallel(Blackhole blackhole) {
+        normalize(mParallel, blackhole);
+    }
+
+    private void normalize(BulkNormalizer normalizer, final Blackhole blackhole) {
+        normalizer.normalize(mNumbers, "US", new BulkNormalizer.Listener() {
+            @Override
+            public void onNumber(int index, CharSequence raw, String e164, int error) {
+                if (blackhole != null) {
+                    blackhole.consume(e164);
+                }
+            }
+        });
+    }
+}
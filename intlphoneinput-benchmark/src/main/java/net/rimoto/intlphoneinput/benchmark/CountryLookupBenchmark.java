@@ -0,0 +1,82 @@
+package net.rimoto.intlphoneinput.benchmark;
+
+import net.rimoto.intlphoneinput.Countries;
+import net.rimoto.intlphoneinput.Country;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Country lookups of IntlPhoneInput.selectCountry (by dial code) and setEmptyDefault (by ISO),
+ * for every country of countries.json. The linear scans are the lookups the indexes replaced.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CountryLookupBenchmark {
+    private int[] mDialCodes;
+    private String[] mIsos;
+
+    @Setup
+    public void setUp() {
+        List<Country> countries = Countries.COUNTRIES;
+        mDialCodes = new int[countries.size()];
+        mIsos = new String[countries.size()];
+        for (int i = 0; i < countries.size(); i++) {
+            mDialCodes[i] = countries.get(i).getDialCode();
+            mIsos[i] = countries.get(i).getIso().toLowerCase(Locale.US);
+        }
+    }
+
+    @Benchmark
+    public void selectCountry(Blackhole blackhole) {
+        for (int dialCode : mDialCodes) {
+            blackhole.consume(Countries.indexOfDialCode(dialCode));
+        }
+    }
+
+    @Benchmark
+    public void setEmptyDefault(Blackhole blackhole) {
+        for (String iso : mIsos) {
+            blackhole.consume(Countries.indexOfIso(iso));
+        }
+    }
+
+    @Benchmark
+    public void selectCountryLinearScan(Blackhole blackhole) {
+        for (int dialCode : mDialCodes) {
+            int found = -1;
+            for (int i = 0; i < Countries.COUNTRIES.size(); i++) {
+                if (Countries.COUNTRIES.get(i).getDialCode() == dialCode) {
+                    found = i;
+                    break;
+                }
+            }
+            blackhole.consume(found);
+        }
+    }
+
+    @Benchmark
+    public void setEmptyDefaultLinearScan(Blackhole blackhole) {
+        for (String iso : mIsos) {
+            int found = -1;
+            for (int i = 0; i < Countries.COUNTRIES.size(); i++) {
+                if (Countries.COUNTRIES.get(i).getIso().equalsIgnoreCase(iso)) {
+                    found = i;
+                    break;
+                }
+            }
+            blackhole.consume(found);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package net.rimoto.intlphoneinput.benchmark;
+
+import net.rimoto.intlphoneinput.Countries;
+import net.rimoto.intlphoneinput.Country;
+import net.rimoto.intlphoneinput.CountryLabels;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row texts: Country.getDisplayName and the labels CountrySpinnerAdapter binds
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CountryTextBenchmark {
+    @Param({"IL", "US", "GB"})
+    public String iso;
+
+    private Country mCountry;
+
+    @Setup
+    public void setUp() {
+        int position = Countries.indexOfIso(iso);
+        mCountry = position >= 0 ? Countries.COUNTRIES.get(position) : Countries.COUNTRIES.get(0);
+    }
+
+    @Benchmark
+    public String displayName() {
+        return mCountry.getDisplayName();
+    }
+
+    @Benchmark
+    public String itemLabel() {
+        return CountryLabels.getItemLabel(mCountry);
+    }
+
+    @Benchmark
+    public String valueLabel() {
+        return CountryLabels.getValueLabel(mCountry);
+    }
+}
@@ -0,0 +1,77 @@
+package net.rimoto.intlphoneinput.benchmark;
+
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+
+import net.rimoto.intlphoneinput.LongHashSet;
+import net.rimoto.intlphoneinput.PackedPhoneNumber;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deduplicating normalized E.164 numbers, about one in three a duplicate: Strings in a HashSet against packed
+ * numbers in a LongHashSet. Run with -Pjmh='-prof gc DedupBenchmark' for the bytes allocated per deduplication.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DedupBenchmark {
+    @Param({"1000000"})
+    public int size;
+
+    private PhoneNumberUtil mPhoneUtil;
+    private String[] mNumbers;
+
+    @Setup
+    public void setUp() {
+        mPhoneUtil = PhoneNumberUtil.getInstance();
+        Random random = new Random(25);
+        String[] prefixes = {"+1650", "+1212", "+4420", "+447", "+3906", "+9725", "+9180"};
+        String[] distinct = new String[size * 13 / 20];
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < distinct.length; i++) {
+            String number;
+            do {
+                number = prefixes[random.nextInt(prefixes.length)] + (1000000 + random.nextInt(9000000));
+            } while (!seen.add(number));
+            distinct[i] = number;
+        }
+        mNumbers = new String[size];
+        for (int i = 0; i < size; i++) {
+            mNumbers[i] = i < distinct.length ? distinct[i] : distinct[random.nextInt(distinct.length)];
+        }
+    }
+
+    /**
+     * As returned by getNumber(): a new String per normalized number
+     */
+    @Benchmark
+    @SuppressWarnings("StringOperationCanBeSimplified")
+    public Set<String> stringSet() {
+        Set<String> strings = new HashSet<>();
+        for (String number : mNumbers) {
+            strings.add(new String(number));
+        }
+        return strings;
+    }
+
+    @Benchmark
+    public LongHashSet packedSet() {
+        LongHashSet packed = new LongHashSet();
+        for (String number : mNumbers) {
+            packed.add(PackedPhoneNumber.pack(mPhoneUtil, number));
+        }
+        return packed;
+    }
+}
@@ -0,0 +1,72 @@
+package net.rimoto.intlphoneinput.benchmark;
+
+import net.rimoto.intlphoneinput.Countries;
+import net.rimoto.intlphoneinput.Country;
+import net.rimoto.intlphoneinput.PhoneNumberEngine;
+import net.rimoto.intlphoneinput.PhoneNumberState;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The parse and validate sequence of IntlPhoneInput's PhoneNumberWatcher.onTextChanged,
+ * replayed for every keystroke of typing a number
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class KeystrokeBenchmark {
+    @Param({"+972 50-123-4567", "(650) 253-0000", "020 7031 3000"})
+    public String number;
+
+    private PhoneNumberEngine mEngine;
+    private String[] mKeystrokes;
+    private Country mSelectedCountry;
+
+    @Setup
+    public void setUp() {
+        mEngine = PhoneNumberEngine.getDefault();
+        mKeystrokes = new String[number.length()];
+        for (int i = 0; i < mKeystrokes.length; i++) {
+            mKeystrokes[i] = number.substring(0, i + 1);
+        }
+        mSelectedCountry = Countries.COUNTRIES.get(Math.max(0, Countries.indexOfIso(number.startsWith("0") ? "GB" : "US")));
+        // Load the metadata outside of the measurement
+        mEngine.parse(number, mSelectedCountry.getIso()).isValid();
+    }
+
+    /**
+     * Type the number: parse once per keystroke, switch country, validate
+     */
+    @Benchmark
+    public void typeNumber(Blackhole blackhole) {
+        Country selected = mSelectedCountry;
+        PhoneNumberState state = null;
+        for (String text : mKeystrokes) {
+            state = mEngine.update(state, text, selected.getIso());
+            int position = mEngine.findCountry(state, selected);
+            if (position >= 0) {
+                selected = Countries.COUNTRIES.get(position);
+            }
+            blackhole.consume(state.isValid());
+        }
+    }
+
+    /**
+     * A keystroke that does not change the text (e.g. the formatter rewriting it) reuses the parse result
+     */
+    @Benchmark
+    public boolean repeatKeystroke() {
+        PhoneNumberState state = mEngine.update(null, number, mSelectedCountry.getIso());
+        return mEngine.update(state, number, mSelectedCountry.getIso()).isValid();
+    }
+}
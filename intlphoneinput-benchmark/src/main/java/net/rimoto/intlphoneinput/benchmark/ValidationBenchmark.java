@@ -0,0 +1,77 @@
+package net.rimoto.intlphoneinput.benchmark;
+
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.Phonenumber;
+
+import net.rimoto.intlphoneinput.PhoneNumberValidator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PhoneNumberValidator against libphonenumber on the example numbers of the compiled regions, each with every
+ * digit replaced. Build with the regions to compare, e.g.
+ * ./gradlew :intlphoneinput-benchmark:jmh -Pintlphoneinput.validationRegions=US,GB,IT -Pjmh='ValidationBenchmark';
+ * without any, both validate through libphonenumber.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ValidationBenchmark {
+    private PhoneNumberUtil mPhoneUtil;
+    private PhoneNumberValidator mValidator;
+    private Phonenumber.PhoneNumber[] mNumbers;
+
+    @Setup
+    public void setUp() {
+        mPhoneUtil = PhoneNumberUtil.getInstance();
+        mValidator = PhoneNumberValidator.getDefault();
+        List<Phonenumber.PhoneNumber> numbers = new ArrayList<>();
+        for (String region : mValidator.getRegions()) {
+            for (PhoneNumberUtil.PhoneNumberType type : PhoneNumberUtil.PhoneNumberType.values()) {
+                Phonenumber.PhoneNumber example = mPhoneUtil.getExampleNumberForType(region, type);
+                if (example == null) {
+                    continue;
+                }
+                numbers.add(example);
+                long nationalNumber = example.getNationalNumber();
+                for (long place = 1; place <= nationalNumber; place *= 10) {
+                    long digit = nationalNumber / place % 10;
+                    numbers.add(new Phonenumber.PhoneNumber().mergeFrom(example)
+                            .setNationalNumber(nationalNumber + ((digit + 1) % 10 - digit) * place));
+                }
+            }
+        }
+        mNumbers = numbers.toArray(new Phonenumber.PhoneNumber[numbers.size()]);
+        // Load the metadata and compile the regular expressions outside of the measurement
+        for (Phonenumber.PhoneNumber number : mNumbers) {
+            if (mPhoneUtil.isValidNumber(number) != mValidator.isValidNumber(mPhoneUtil, number)) {
+                throw new IllegalStateException("Validity differs from libphonenumber: " + number);
+            }
+        }
+    }
+
+    @Benchmark
+    public void libphonenumber(Blackhole blackhole) {
+        for (Phonenumber.PhoneNumber number : mNumbers) {
+            blackhole.consume(mPhoneUtil.isValidNumber(number));
+        }
+    }
+
+    @Benchmark
+    public void automata(Blackhole blackhole) {
+        for (Phonenumber.PhoneNumber number : mNumbers) {
+            blackhole.consume(mValidator.isValidNumber(mPhoneUtil, number));
+        }
+    }
+}
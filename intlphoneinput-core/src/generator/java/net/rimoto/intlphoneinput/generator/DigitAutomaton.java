@@ -0,0 +1,676 @@
+package net.rimoto.intlphoneinput.generator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deterministic automaton over the digits 0-9, compiled from the regular expressions of libphonenumber metadata
+ * (digits, classes, \d, groups, alternation and greedy quantifiers). State 0 is the start state, -1 the dead state.
+ */
+public final class DigitAutomaton {
+    private static final int RADIX = 10;
+
+    /**
+     * Next state by state * RADIX + digit, -1 if dead
+     */
+    private final int[] mNext;
+    private final boolean[] mAccepting;
+
+    private DigitAutomaton(int[] next, boolean[] accepting) {
+        mNext = next;
+        mAccepting = accepting;
+    }
+
+    /**
+     * Compile a pattern matched against the whole input, like {@code Matcher.matches()}
+     *
+     * @param regex pattern
+     * @return minimal DigitAutomaton
+     * @throws IllegalArgumentException on a construct not supported over digits
+     */
+    public static DigitAutomaton compile(String regex) {
+        Nfa nfa = new Nfa();
+        int end = new Parser(regex).parse().build(nfa, 0);
+        nfa.mAccepting.set(end);
+        return nfa.toDfa().minimize();
+    }
+
+    /**
+     * Compile a pattern matched against a prefix of the input, like {@code Matcher.lookingAt()}
+     *
+     * @param regex pattern
+     * @return minimal DigitAutomaton
+     */
+    public static DigitAutomaton compilePrefix(String regex) {
+        DigitAutomaton automaton = compile(regex);
+        int[] next = automaton.mNext.clone();
+        for (int state = 0; state < automaton.size(); state++) {
+            if (automaton.mAccepting[state]) {
+                // Any continuation of a matched prefix is matched
+                Arrays.fill(next, state * RADIX, state * RADIX + RADIX, state);
+            }
+        }
+        return new DigitAutomaton(next, automaton.mAccepting).minimize();
+    }
+
+    /**
+     * Accept inputs of some lengths only
+     *
+     * @param lengths accepted lengths, negative ones are ignored
+     * @return DigitAutomaton
+     */
+    public static DigitAutomaton lengths(Collection<Integer> lengths) {
+        int max = -1;
+        for (int length : lengths) {
+            max = Math.max(max, length);
+        }
+        if (max < 0) {
+            return empty();
+        }
+        int[] next = new int[(max + 1) * RADIX];
+        boolean[] accepting = new boolean[max + 1];
+        for (int state = 0; state <= max; state++) {
+            Arrays.fill(next, state * RADIX, state * RADIX + RADIX, state < max ? state + 1 : -1);
+            accepting[state] = lengths.contains(state);
+        }
+        return new DigitAutomaton(next, accepting).minimize();
+    }
+
+    /**
+     * Accept nothing
+     *
+     * @return DigitAutomaton
+     */
+    public static DigitAutomaton empty() {
+        int[] next = new int[RADIX];
+        Arrays.fill(next, -1);
+        return new DigitAutomaton(next, new boolean[1]);
+    }
+
+    public DigitAutomaton and(DigitAutomaton other) {
+        return product(other, true);
+    }
+
+    public DigitAutomaton or(DigitAutomaton other) {
+        return product(other, false);
+    }
+
+    public int size() {
+        return mAccepting.length;
+    }
+
+    public boolean isEmpty() {
+        return size() == 1 && !mAccepting[0] && mNext[0] < 0;
+    }
+
+    public boolean accepts(CharSequence digits) {
+        int state = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            int digit = digits.charAt(i) - '0';
+            if (digit < 0 || digit >= RADIX) {
+                return false;
+            }
+            state = mNext[state * RADIX + digit];
+            if (state < 0) {
+                return false;
+            }
+        }
+        return mAccepting[state];
+    }
+
+    /**
+     * Encode as the rows read by {@code PhoneNumberValidator}: per state an accepting flag (0 or 1) then the next state
+     * per digit, states shifted by one so that row 0 is the dead state and row 1 the start state
+     *
+     * @return String
+     */
+    public String encode() {
+        if (size() + 1 > Character.MAX_VALUE) {
+            throw new IllegalStateException("Too many states: " + size());
+        }
+        StringBuilder builder = new StringBuilder((size() + 1) * (RADIX + 1));
+        for (int i = 0; i <= RADIX; i++) {
+            builder.append((char) 0);
+        }
+        for (int state = 0; state < size(); state++) {
+            builder.append((char) (mAccepting[state] ? 1 : 0));
+            for (int digit = 0; digit < RADIX; digit++) {
+                builder.append((char) (mNext[state * RADIX + digit] + 1));
+            }
+        }
+        return builder.toString();
+    }
+
+    private DigitAutomaton product(DigitAutomaton other, boolean and) {
+        Map<Long, Integer> states = new HashMap<>();
+        List<long[]> pairs = new ArrayList<>();
+        Deque<Integer> queue = new ArrayDeque<>();
+        states.put(pair(0, 0), 0);
+        pairs.add(new long[]{0, 0});
+        queue.add(0);
+
+        int[] next = new int[RADIX * 16];
+        boolean[] accepting = new boolean[16];
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int a = (int) pairs.get(state)[0];
+            int b = (int) pairs.get(state)[1];
+            if (state >= accepting.length) {
+                accepting = Arrays.copyOf(accepting, accepting.length * 2);
+                next = Arrays.copyOf(next, accepting.length * RADIX);
+            }
+            boolean acceptA = a >= 0 && mAccepting[a];
+            boolean acceptB = b >= 0 && other.mAccepting[b];
+            accepting[state] = and ? acceptA && acceptB : acceptA || acceptB;
+            for (int digit = 0; digit < RADIX; digit++) {
+                int nextA = a >= 0 ? mNext[a * RADIX + digit] : -1;
+                int nextB = b >= 0 ? other.mNext[b * RADIX + digit] : -1;
+                if (and ? nextA < 0 || nextB < 0 : nextA < 0 && nextB < 0) {
+                    next[state * RADIX + digit] = -1;
+                    continue;
+                }
+                Long key = pair(nextA, nextB);
+                Integer target = states.get(key);
+                if (target == null) {
+                    target = pairs.size();
+                    states.put(key, target);
+                    pairs.add(new long[]{nextA, nextB});
+                    queue.add(target);
+                }
+                next[state * RADIX + digit] = target;
+            }
+        }
+        int size = pairs.size();
+        return new DigitAutomaton(Arrays.copyOf(next, size * RADIX), Arrays.copyOf(accepting, size)).minimize();
+    }
+
+    private static long pair(int a, int b) {
+        return ((long) a << 32) | (b & 0xffffffffL);
+    }
+
+    /**
+     * Drop the states that cannot reach an accepting one, then merge equivalent states (Moore)
+     */
+    private DigitAutomaton minimize() {
+        int size = size();
+        // Live states: backward reachability from the accepting ones
+        boolean[] live = mAccepting.clone();
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int state = 0; state < size; state++) {
+                if (live[state]) {
+                    continue;
+                }
+                for (int digit = 0; digit < RADIX; digit++) {
+                    int target = mNext[state * RADIX + digit];
+                    if (target >= 0 && live[target]) {
+                        live[state] = true;
+                        changed = true;
+                        break;
+                    }
+                }
+            }
+        }
+        if (!live[0]) {
+            return empty();
+        }
+
+        int[] classes = new int[size];
+        for (int state = 0; state < size; state++) {
+            classes[state] = !live[state] ? -1 : mAccepting[state] ? 1 : 0;
+        }
+        int classCount;
+        while (true) {
+            Map<String, Integer> signatures = new HashMap<>();
+            int[] refined = new int[size];
+            for (int state = 0; state < size; state++) {
+                if (classes[state] < 0) {
+                    refined[state] = -1;
+                    continue;
+                }
+                StringBuilder signature = new StringBuilder().append(classes[state]);
+                for (int digit = 0; digit < RADIX; digit++) {
+                    int target = mNext[state * RADIX + digit];
+                    signature.append(',').append(target >= 0 ? classes[target] : -1);
+                }
+                Integer id = signatures.get(signature.toString());
+                if (id == null) {
+                    id = signatures.size();
+                    signatures.put(signature.toString(), id);
+                }
+                refined[state] = id;
+            }
+            boolean stable = signatures.size() == countClasses(classes);
+            classes = refined;
+            if (stable) {
+                classCount = signatures.size();
+                break;
+            }
+        }
+
+        // Renumber in breadth-first order from the start state, so equal languages encode equally
+        int[] order = new int[classCount];
+        Arrays.fill(order, -1);
+        int[] representative = new int[classCount];
+        for (int state = size - 1; state >= 0; state--) {
+            if (classes[state] >= 0) {
+                representative[classes[state]] = state;
+            }
+        }
+        int[] next = new int[classCount * RADIX];
+        boolean[] accepting = new boolean[classCount];
+        Deque<Integer> queue = new ArrayDeque<>();
+        order[classes[0]] = 0;
+        queue.add(classes[0]);
+        int count = 1;
+        while (!queue.isEmpty()) {
+            int cls = queue.poll();
+            int state = representative[cls];
+            int index = order[cls];
+            accepting[index] = mAccepting[state];
+            for (int digit = 0; digit < RADIX; digit++) {
+                int target = mNext[state * RADIX + digit];
+                int targetClass = target >= 0 ? classes[target] : -1;
+                if (targetClass < 0) {
+                    next[index * RADIX + digit] = -1;
+                    continue;
+                }
+                if (order[targetClass] < 0) {
+                    order[targetClass] = count++;
+                    queue.add(targetClass);
+                }
+                next[index * RADIX + digit] = order[targetClass];
+            }
+        }
+        return new DigitAutomaton(Arrays.copyOf(next, count * RADIX), Arrays.copyOf(accepting, count));
+    }
+
+    private static int countClasses(int[] classes) {
+        BitSet seen = new BitSet();
+        for (int cls : classes) {
+            if (cls >= 0) {
+                seen.set(cls);
+            }
+        }
+        return seen.cardinality();
+    }
+
+    /**
+     * Nondeterministic automaton with epsilon moves, state 0 is the start state
+     */
+    private static final class Nfa {
+        private final List<int[]> mMoves = new ArrayList<>();
+        private final List<List<Integer>> mEpsilons = new ArrayList<>();
+        private final BitSet mAccepting = new BitSet();
+
+        Nfa() {
+            newState();
+        }
+
+        int newState() {
+            int[] moves = new int[RADIX];
+            Arrays.fill(moves, -1);
+            mMoves.add(moves);
+            mEpsilons.add(new ArrayList<Integer>());
+            return mMoves.size() - 1;
+        }
+
+        void addEpsilon(int from, int to) {
+            mEpsilons.get(from).add(to);
+        }
+
+        /**
+         * Move on the digits of mask to a new state
+         */
+        int addMove(int from, int mask) {
+            // A state moves on digits to a single target, so a second move goes through an epsilon
+            int source = from;
+            for (int move : mMoves.get(from)) {
+                if (move >= 0) {
+                    source = newState();
+                    addEpsilon(from, source);
+                    break;
+                }
+            }
+            int to = newState();
+            for (int digit = 0; digit < RADIX; digit++) {
+                if ((mask & (1 << digit)) != 0) {
+                    mMoves.get(source)[digit] = to;
+                }
+            }
+            return to;
+        }
+
+        BitSet closure(BitSet states) {
+            BitSet closure = (BitSet) states.clone();
+            Deque<Integer> stack = new ArrayDeque<>();
+            for (int state = states.nextSetBit(0); state >= 0; state = states.nextSetBit(state + 1)) {
+                stack.push(state);
+            }
+            while (!stack.isEmpty()) {
+                for (int target : mEpsilons.get(stack.pop())) {
+                    if (!closure.get(target)) {
+                        closure.set(target);
+                        stack.push(target);
+                    }
+                }
+            }
+            return closure;
+        }
+
+        /**
+         * Subset construction
+         */
+        DigitAutomaton toDfa() {
+            Map<BitSet, Integer> states = new HashMap<>();
+            List<BitSet> subsets = new ArrayList<>();
+            BitSet start = new BitSet();
+            start.set(0);
+            start = closure(start);
+            states.put(start, 0);
+            subsets.add(start);
+
+            int[] next = new int[RADIX * 16];
+            boolean[] accepting = new boolean[16];
+            for (int state = 0; state < subsets.size(); state++) {
+                if (state >= accepting.length) {
+                    accepting = Arrays.copyOf(accepting, accepting.length * 2);
+                    next = Arrays.copyOf(next, accepting.length * RADIX);
+                }
+                BitSet subset = subsets.get(state);
+                accepting[state] = subset.intersects(mAccepting);
+                for (int digit = 0; digit < RADIX; digit++) {
+                    BitSet targets = new BitSet();
+                    for (int member = subset.nextSetBit(0); member >= 0; member = subset.nextSetBit(member + 1)) {
+                        int target = mMoves.get(member)[digit];
+                        if (target >= 0) {
+                            targets.set(target);
+                        }
+                    }
+                    if (targets.isEmpty()) {
+                        next[state * RADIX + digit] = -1;
+                        continue;
+                    }
+                    targets = closure(targets);
+                    Integer target = states.get(targets);
+                    if (target == null) {
+                        target = subsets.size();
+                        states.put(targets, target);
+                        subsets.add(targets);
+                    }
+                    next[state * RADIX + digit] = target;
+                }
+            }
+            int size = subsets.size();
+            return new DigitAutomaton(Arrays.copyOf(next, size * RADIX), Arrays.copyOf(accepting, size));
+        }
+    }
+
+    /**
+     * Regular expression tree
+     */
+    private abstract static class Node {
+        /**
+         * Add the moves of this node from a state
+         *
+         * @return state reached at the end of this node
+         */
+        abstract int build(Nfa nfa, int from);
+    }
+
+    private static final class Digits extends Node {
+        private final int mMask;
+
+        Digits(int mask) {
+            mMask = mask;
+        }
+
+        @Override
+        int build(Nfa nfa, int from) {
+            return nfa.addMove(from, mMask);
+        }
+    }
+
+    private static final class Sequence extends Node {
+        private final List<Node> mNodes;
+
+        Sequence(List<Node> nodes) {
+            mNodes = nodes;
+        }
+
+        @Override
+        int build(Nfa nfa, int from) {
+            int state = from;
+            for (Node node : mNodes) {
+                state = node.build(nfa, state);
+            }
+            return state;
+        }
+    }
+
+    private static final class Alternation extends Node {
+        private final List<Node> mNodes;
+
+        Alternation(List<Node> nodes) {
+            mNodes = nodes;
+        }
+
+        @Override
+        int build(Nfa nfa, int from) {
+            int end = nfa.newState();
+            for (Node node : mNodes) {
+                int start = nfa.newState();
+                nfa.addEpsilon(from, start);
+                nfa.addEpsilon(node.build(nfa, start), end);
+            }
+            return end;
+        }
+    }
+
+    private static final class Repetition extends Node {
+        private final Node mNode;
+        private final int mMin;
+        /**
+         * -1 if unbounded
+         */
+        private final int mMax;
+
+        Repetition(Node node, int min, int max) {
+            mNode = node;
+            mMin = min;
+            mMax = max;
+        }
+
+        @Override
+        int build(Nfa nfa, int from) {
+            int state = from;
+            for (int i = 0; i < mMin; i++) {
+                state = build(nfa, mNode, state);
+            }
+            if (mMax < 0) {
+                int loop = nfa.newState();
+                nfa.addEpsilon(state, loop);
+                nfa.addEpsilon(build(nfa, mNode, loop), loop);
+                return loop;
+            }
+            int end = nfa.newState();
+            nfa.addEpsilon(state, end);
+            for (int i = mMin; i < mMax; i++) {
+                state = build(nfa, mNode, state);
+                nfa.addEpsilon(state, end);
+            }
+            return end;
+        }
+
+        /**
+         * Each copy starts from its own state, so a repeated node never loops back into a previous copy
+         */
+        private static int build(Nfa nfa, Node node, int from) {
+            int start = nfa.newState();
+            nfa.addEpsilon(from, start);
+            return node.build(nfa, start);
+        }
+    }
+
+    private static final class Parser {
+        private final String mRegex;
+        private int mIndex;
+
+        Parser(String regex) {
+            mRegex = regex;
+        }
+
+        Node parse() {
+            Node node = parseAlternation();
+            if (mIndex < mRegex.length()) {
+                throw error("Unexpected " + mRegex.charAt(mIndex));
+            }
+            return node;
+        }
+
+        private Node parseAlternation() {
+            List<Node> nodes = new ArrayList<>();
+            nodes.add(parseSequence());
+            while (peek('|')) {
+                mIndex++;
+                nodes.add(parseSequence());
+            }
+            return nodes.size() == 1 ? nodes.get(0) : new Alternation(nodes);
+        }
+
+        private Node parseSequence() {
+            List<Node> nodes = new ArrayList<>();
+            while (mIndex < mRegex.length() && !peek('|') && !peek(')')) {
+                Node node = parseAtom();
+                while (mIndex < mRegex.length()) {
+                    char c = mRegex.charAt(mIndex);
+                    if (c == '?') {
+                        mIndex++;
+                        node = new Repetition(node, 0, 1);
+                    } else if (c == '*') {
+                        mIndex++;
+                        node = new Repetition(node, 0, -1);
+                    } else if (c == '+') {
+                        mIndex++;
+                        node = new Repetition(node, 1, -1);
+                    } else if (c == '{') {
+                        node = parseBounds(node);
+                    } else {
+                        break;
+                    }
+                    if (peek('?') || peek('+')) {
+                        throw error("Lazy or possessive quantifier");
+                    }
+                }
+                nodes.add(node);
+            }
+            return new Sequence(nodes);
+        }
+
+        private Node parseAtom() {
+            char c = mRegex.charAt(mIndex++);
+            if (c >= '0' && c <= '9') {
+                return new Digits(1 << (c - '0'));
+            }
+            switch (c) {
+                case '(':
+                    if (mRegex.startsWith("?:", mIndex)) {
+                        mIndex += 2;
+                    } else if (peek('?')) {
+                        throw error("Unsupported group");
+                    }
+                    Node node = parseAlternation();
+                    expect(')');
+                    return node;
+                case '[':
+                    return new Digits(parseClass());
+                case '\\':
+                    expect('d');
+                    return new Digits((1 << RADIX) - 1);
+                default:
+                    throw error("Unsupported " + c);
+            }
+        }
+
+        private int parseClass() {
+            boolean negated = peek('^');
+            if (negated) {
+                mIndex++;
+            }
+            int mask = 0;
+            while (!peek(']')) {
+                if (mIndex >= mRegex.length()) {
+                    throw error("Unterminated class");
+                }
+                char c = mRegex.charAt(mIndex++);
+                if (c == '\\') {
+                    expect('d');
+                    mask |= (1 << RADIX) - 1;
+                    continue;
+                }
+                int low = digit(c);
+                int high = low;
+                if (peek('-') && mIndex + 1 < mRegex.length() && mRegex.charAt(mIndex + 1) != ']') {
+                    mIndex++;
+                    high = digit(mRegex.charAt(mIndex++));
+                }
+                for (int digit = low; digit <= high; digit++) {
+                    mask |= 1 << digit;
+                }
+            }
+            mIndex++;
+            return negated ? ~mask & ((1 << RADIX) - 1) : mask;
+        }
+
+        private Node parseBounds(Node node) {
+            int close = mRegex.indexOf('}', mIndex);
+            if (close < 0) {
+                throw error("Unterminated bounds");
+            }
+            String bounds = mRegex.substring(mIndex + 1, close);
+            mIndex = close + 1;
+            try {
+                int comma = bounds.indexOf(',');
+                if (comma < 0) {
+                    int count = Integer.parseInt(bounds);
+                    return new Repetition(node, count, count);
+                }
+                int min = Integer.parseInt(bounds.substring(0, comma));
+                String max = bounds.substring(comma + 1);
+                return new Repetition(node, min, max.isEmpty() ? -1 : Integer.parseInt(max));
+            } catch (NumberFormatException e) {
+                throw error("Bad bounds {" + bounds + "}");
+            }
+        }
+
+        private int digit(char c) {
+            if (c < '0' || c > '9') {
+                throw error("Not a digit " + c);
+            }
+            return c - '0';
+        }
+
+        private boolean peek(char c) {
+            return mIndex < mRegex.length() && mRegex.charAt(mIndex) == c;
+        }
+
+        private void expect(char c) {
+            if (!peek(c)) {
+                throw error("Expected " + c);
+            }
+            mIndex++;
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at " + mIndex + " in " + mRegex);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package net.rimoto.intlphoneinput.generator;
+
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.Phonemetadata.PhoneMetadata;
+import com.google.i18n.phonenumbers.Phonemetadata.PhoneMetadataCollection;
+import com.google.i18n.phonenumbers.Phonemetadata.PhoneNumberDesc;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+
+/**
+ * Compile the validation rules of libphonenumber metadata into digit automata and write them as
+ * {@code ValidationTable} for {@code PhoneNumberValidator}. Run by the generateValidationTable task:
+ * <pre>ValidationTableGenerator outputDir US,GB metadataRegions</pre>
+ * A region is compiled with every region sharing its calling code, since libphonenumber picks the region of a number
+ * among them. In a trimmed metadata build the regions left out are compiled as their stubs: never valid.
+ */
+public final class ValidationTableGenerator {
+    private static final String METADATA_PREFIX = "/com/google/i18n/phonenumbers/data/PhoneNumberMetadataProto_";
+    /**
+     * Characters per String constant, whose modified UTF-8 form must stay under 64KB
+     */
+    private static final int CHUNK_SIZE = 16384;
+
+    /**
+     * Compiled regions, grouped by calling code
+     */
+    public static final class Table {
+        /**
+         * Calling codes, ascending
+         */
+        public final int[] countryCodes;
+        /**
+         * First region of each calling code, plus the region count at the end
+         */
+        public final int[] groupStarts;
+        /**
+         * Regions of each calling code in libphonenumber order
+         */
+        public final String[] regions;
+        /**
+         * Validity automaton of each region, see {@link DigitAutomaton#encode()}, in chunks
+         */
+        public final String[][] valid;
+        /**
+         * Leading digits automaton (prefix match) of each region, null if the region is picked without it
+         */
+        public final String[][] leadingDigits;
+
+        Table(int[] countryCodes, int[] groupStarts, String[] regions, String[][] valid, String[][] leadingDigits) {
+            this.countryCodes = countryCodes;
+            this.groupStarts = groupStarts;
+            this.regions = regions;
+            this.valid = valid;
+            this.leadingDigits = leadingDigits;
+        }
+    }
+
+    private ValidationTableGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        File outputDir = new File(args[0]);
+        Table table = compile(split(args.length > 1 ? args[1] : ""), split(args.length > 2 ? args[2] : ""));
+        File output = new File(outputDir, "net/rimoto/intlphoneinput/ValidationTable.java");
+        if (!output.getParentFile().isDirectory() && !output.getParentFile().mkdirs()) {
+            throw new IOException("Cannot create " + output.getParentFile());
+        }
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(output), "UTF-8")) {
+            write(table, writer);
+        }
+    }
+
+    /**
+     * Compile regions
+     *
+     * @param regions         ISO2 of the regions to compile
+     * @param metadataRegions regions of a trimmed metadata build, empty for the full metadata
+     * @return Table
+     * @throws IllegalArgumentException on an unknown region or an unsupported pattern
+     */
+    public static Table compile(Collection<String> regions, Collection<String> metadataRegions) throws IOException {
+        PhoneNumberUtil phoneUtil = PhoneNumberUtil.getInstance();
+        TreeSet<Integer> countryCodes = new TreeSet<>();
+        for (String region : regions) {
+            int countryCode = phoneUtil.getCountryCodeForRegion(region.toUpperCase(Locale.US));
+            if (countryCode == 0) {
+                throw new IllegalArgumentException("Unknown region " + region);
+            }
+            countryCodes.add(countryCode);
+        }
+
+        int[] codes = new int[countryCodes.size()];
+        int[] groupStarts = new int[codes.length + 1];
+        List<String> names = new ArrayList<>();
+        List<String[]> valid = new ArrayList<>();
+        List<String[]> leadingDigits = new ArrayList<>();
+        int group = 0;
+        for (int countryCode : countryCodes) {
+            List<String> codeRegions = phoneUtil.getRegionCodesForCountryCode(countryCode);
+            codes[group] = countryCode;
+            groupStarts[group++] = names.size();
+            for (String region : codeRegions) {
+                boolean stub = !metadataRegions.isEmpty() && !metadataRegions.contains(region);
+                PhoneMetadata metadata = stub ? null : loadMetadata(region);
+                names.add(region);
+                valid.add(chunk(metadata != null ? compileValidity(metadata) : DigitAutomaton.empty()));
+                // libphonenumber takes the only region of a calling code without looking at its leading digits
+                leadingDigits.add(metadata != null && codeRegions.size() > 1 && metadata.hasLeadingDigits()
+                        ? chunk(DigitAutomaton.compilePrefix(metadata.getLeadingDigits())) : null);
+            }
+        }
+        groupStarts[group] = names.size();
+        return new Table(codes, groupStarts, names.toArray(new String[0]),
+                valid.toArray(new String[0][]), leadingDigits.toArray(new String[0][]));
+    }
+
+    /**
+     * Numbers of which libphonenumber finds a type (isValidNumberForRegion): matching the general description
+     * and one of the type descriptions, in their pattern and possible lengths
+     */
+    static DigitAutomaton compileValidity(PhoneMetadata metadata) {
+        DigitAutomaton types = DigitAutomaton.empty();
+        for (PhoneNumberDesc desc : Arrays.asList(metadata.getPremiumRate(), metadata.getTollFree(),
+                metadata.getSharedCost(), metadata.getVoip(), metadata.getPersonalNumber(), metadata.getPager(),
+                metadata.getUan(), metadata.getVoicemail(), metadata.getFixedLine())) {
+            types = types.or(compile(desc));
+        }
+        if (!metadata.getSameMobileAndFixedLinePattern()) {
+            types = types.or(compile(metadata.getMobile()));
+        }
+        return compile(metadata.getGeneralDesc()).and(types);
+    }
+
+    private static DigitAutomaton compile(PhoneNumberDesc desc) {
+        if (desc == null || !desc.hasNationalNumberPattern() || desc.getNationalNumberPattern().isEmpty()) {
+            return DigitAutomaton.empty();
+        }
+        DigitAutomaton automaton = DigitAutomaton.compile(desc.getNationalNumberPattern());
+        if (desc.getPossibleLengthCount() > 0) {
+            automaton = automaton.and(DigitAutomaton.lengths(desc.getPossibleLengthList()));
+        }
+        return automaton;
+    }
+
+    private static PhoneMetadata loadMetadata(String region) throws IOException {
+        InputStream input = PhoneNumberUtil.class.getResourceAsStream(METADATA_PREFIX + region);
+        if (input == null) {
+            throw new IllegalArgumentException("No libphonenumber metadata for region " + region);
+        }
+        try (ObjectInputStream objectInput = new ObjectInputStream(input)) {
+            PhoneMetadataCollection collection = new PhoneMetadataCollection();
+            collection.readExternal(objectInput);
+            return collection.getMetadataList().get(0);
+        }
+    }
+
+    private static String[] chunk(DigitAutomaton automaton) {
+        String encoded = automaton.encode();
+        String[] chunks = new String[(encoded.length() + CHUNK_SIZE - 1) / CHUNK_SIZE];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = encoded.substring(i * CHUNK_SIZE, Math.min(encoded.length(), (i + 1) * CHUNK_SIZE));
+        }
+        return chunks;
+    }
+
+    private static void write(Table table, Writer writer) throws IOException {
+        writer.write("// Generated by the generateValidationTable task from libphonenumber metadata, do not edit.\n");
+        writer.write("package net.rimoto.intlphoneinput;\n\n");
+        writer.write("final class ValidationTable {\n");
+        writer.write("    static final int[] COUNTRY_CODES = {");
+        for (int i = 0; i < table.countryCodes.length; i++) {
+            writer.write((i > 0 ? ", " : "") + table.countryCodes[i]);
+        }
+        writer.write("};\n\n");
+        writer.write("    static final int[] GROUP_STARTS = {");
+        for (int i = 0; i < table.groupStarts.length; i++) {
+            writer.write((i > 0 ? ", " : "") + table.groupStarts[i]);
+        }
+        writer.write("};\n\n");
+        writer.write("    static final String[] REGIONS = {");
+        for (int i = 0; i < table.regions.length; i++) {
+            writer.write((i > 0 ? ", " : "") + javaString(table.regions[i]));
+        }
+        writer.write("};\n\n");
+        writer.write("    static final String[][] VALID = {\n");
+        writeChunks(table.valid, writer);
+        writer.write("    };\n\n");
+        writer.write("    static final String[][] LEADING_DIGITS = {\n");
+        writeChunks(table.leadingDigits, writer);
+        writer.write("    };\n\n");
+        writer.write("    private ValidationTable() {\n    }\n");
+        writer.write("}\n");
+    }
+
+    private static void writeChunks(String[][] automata, Writer writer) throws IOException {
+        for (String[] chunks : automata) {
+            if (chunks == null) {
+                writer.write("            null,\n");
+                continue;
+            }
+            writer.write("            {");
+            for (int i = 0; i < chunks.length; i++) {
+                writer.write((i > 0 ? ",\n                    " : "") + javaString(chunks[i]));
+            }
+            writer.write("},\n");
+        }
+    }
+
+    static String javaString(String value) {
+        StringBuilder builder = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                builder.append('\\').append(c);
+            } else if (c < 0x20 || (c > 0x7e && c < 0x100)) {
+                // Octal: unicode escapes of line breaks are translated before lexing and would end the literal
+                builder.append(String.format("\\%03o", (int) c));
+            } else if (c > 0x7e) {
+                builder.append(String.format("\\u%04x", (int) c));
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    private static List<String> split(String regions) {
+        List<String> list = new ArrayList<>();
+        for (String region : regions.split(",")) {
+            if (!region.trim().isEmpty()) {
+                list.add(region.trim().toUpperCase(Locale.US));
+            }
+        }
+        return list;
+    }
+}
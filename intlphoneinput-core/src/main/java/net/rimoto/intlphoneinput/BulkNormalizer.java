@@ -0,0 +1,305 @@
+package net.rimoto.intlphoneinput;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.RequiresApi;
+
+import com.google.i18n.phonenumbers.NumberParseException;
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.Phonenumber;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Normalize many numbers (e.g. an address book) to E.164 with the rules of {@code IntlPhoneInput.getNumber()}.
+ * Input is read in chunks which are parsed with fork/join across cores while the next chunk is read,
+ * so at most two chunks are held in memory; results are delivered in input order on the calling thread.
+ * <p>
+ * ForkJoinPool requires Android API 21.
+ */
+@RequiresApi(21)
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class BulkNormalizer {
+    public static final int DEFAULT_CHUNK_SIZE = 2048;
+
+    /**
+     * Valid number
+     */
+    public static final int ERROR_NONE = 0;
+    /**
+     * Parsed to E.164, but not a valid number
+     */
+    public static final int ERROR_INVALID_NUMBER = 1;
+    public static final int ERROR_NOT_A_NUMBER = 2;
+    public static final int ERROR_INVALID_COUNTRY_CODE = 3;
+    public static final int ERROR_TOO_SHORT = 4;
+    public static final int ERROR_TOO_LONG = 5;
+
+    /**
+     * Numbers parsed by a single fork/join leaf
+     */
+    private static final int LEAF_SIZE = 64;
+
+    @Nullable
+    private static ForkJoinPool sPool;
+
+    @NonNull
+    private final PhoneNumberUtil mPhoneUtil;
+    @NonNull
+    private final PhoneNumberValidator mValidator = PhoneNumberValidator.getDefault();
+    @NonNull
+    private final ForkJoinPool mPool;
+    private final int mChunkSize;
+
+    /**
+     * Constructor, on a pool shared by all normalizers with one thread per core
+     *
+     * @param engine PhoneNumberEngine
+     */
+    public BulkNormalizer(@NonNull PhoneNumberEngine engine) {
+        this(engine, getDefaultPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param engine    PhoneNumberEngine
+     * @param pool      pool to parse on
+     * @param chunkSize numbers read ahead per chunk
+     */
+    public BulkNormalizer(@NonNull PhoneNumberEngine engine, @NonNull ForkJoinPool pool, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize < 1");
+        }
+        mPhoneUtil = engine.getPhoneUtil();
+        mPool = pool;
+        mChunkSize = chunkSize;
+    }
+
+    private static synchronized ForkJoinPool getDefaultPool() {
+        if (sPool == null) {
+            sPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        }
+        return sPool;
+    }
+
+    /**
+     * Normalize numbers
+     *
+     * @param numbers  raw numbers, E.164 or national format
+     * @param region   ISO2 of the default region, null if none
+     * @param listener receives every result in input order
+     */
+    public void normalize(@NonNull Iterable<? extends CharSequence> numbers, @Nullable String region,
+                          @NonNull Listener listener) {
+        normalize(numbers.iterator(), region, listener);
+    }
+
+    /**
+     * Normalize numbers
+     *
+     * @param numbers  raw numbers, E.164 or national format, read once
+     * @param region   ISO2 of the default region, null if none
+     * @param listener receives every result in input order
+     */
+    public void normalize(@NonNull Iterator<? extends CharSequence> numbers, @Nullable String region,
+                          @NonNull Listener listener) {
+        normalize(numbers, region, listener, null);
+    }
+
+    /**
+     * Normalize numbers to {@link PackedPhoneNumber packed numbers}, without an E.164 String per number,
+     * e.g. to deduplicate them in a {@link LongHashSet}
+     *
+     * @param numbers  raw numbers, E.164 or national format
+     * @param region   ISO2 of the default region, null if none
+     * @param listener receives every result in input order
+     */
+    public void normalizePacked(@NonNull Iterable<? extends CharSequence> numbers, @Nullable String region,
+                                @NonNull PackedListener listener) {
+        normalize(numbers.iterator(), region, null, listener);
+    }
+
+    /**
+     * Normalize numbers to {@link PackedPhoneNumber packed numbers}
+     *
+     * @param numbers  raw numbers, E.164 or national format, read once
+     * @param region   ISO2 of the default region, null if none
+     * @param listener receives every result in input order
+     */
+    public void normalizePacked(@NonNull Iterator<? extends CharSequence> numbers, @Nullable String region,
+                                @NonNull PackedListener listener) {
+        normalize(numbers, region, null, listener);
+    }
+
+    private void normalize(@NonNull Iterator<? extends CharSequence> numbers, @Nullable String region,
+                           @Nullable Listener listener, @Nullable PackedListener packedListener) {
+        String defaultRegion = region != null ? region.toUpperCase(Locale.US) : "";
+        boolean packed = packedListener != null;
+        Chunk current = new Chunk(mChunkSize, packed);
+        Chunk next = new Chunk(mChunkSize, packed);
+        int index = 0;
+
+        current.fill(numbers);
+        while (current.mSize > 0) {
+            ChunkTask task = new ChunkTask(current, defaultRegion, 0, current.mSize);
+            mPool.execute(task);
+            next.fill(numbers);
+            task.join();
+
+            for (int i = 0; i < current.mSize; i++) {
+                if (packedListener != null) {
+                    packedListener.onNumber(index++, current.mRaw[i], current.mPacked[i], current.mErrors[i]);
+                } else if (listener != null) {
+                    listener.onNumber(index++, current.mRaw[i], current.mE164[i], current.mErrors[i]);
+                }
+            }
+            current.clear();
+
+            Chunk filled = next;
+            next = current;
+            current = filled;
+        }
+    }
+
+    private void normalize(@NonNull Chunk chunk, @NonNull String region, int position) {
+        Phonenumber.PhoneNumber phoneNumber;
+        try {
+            phoneNumber = mPhoneUtil.parse(chunk.mRaw[position], region);
+        } catch (NumberParseException e) {
+            if (chunk.mPacked != null) {
+                chunk.mPacked[position] = PackedPhoneNumber.NONE;
+            }
+            chunk.mErrors[position] = toError(e.getErrorType());
+            return;
+        }
+        if (chunk.mPacked != null) {
+            chunk.mPacked[position] = PackedPhoneNumber.pack(phoneNumber);
+        } else {
+            chunk.mE164[position] = mPhoneUtil.format(phoneNumber, PhoneNumberUtil.PhoneNumberFormat.E164);
+        }
+        chunk.mErrors[position] = mValidator.isValidNumber(mPhoneUtil, phoneNumber) ? ERROR_NONE : ERROR_INVALID_NUMBER;
+    }
+
+    private static int toError(@NonNull NumberParseException.ErrorType errorType) {
+        switch (errorType) {
+            case INVALID_COUNTRY_CODE:
+                return ERROR_INVALID_COUNTRY_CODE;
+            case TOO_SHORT_AFTER_IDD:
+            case TOO_SHORT_NSN:
+                return ERROR_TOO_SHORT;
+            case TOO_LONG:
+                return ERROR_TOO_LONG;
+            default:
+                return ERROR_NOT_A_NUMBER;
+        }
+    }
+
+    /**
+     * Numbers read ahead and their results; the arrays are reused for every chunk
+     */
+    private static final class Chunk {
+        @NonNull
+        final CharSequence[] mRaw;
+        /**
+         * E.164 results, null when packing
+         */
+        @Nullable
+        final String[] mE164;
+        /**
+         * Packed results, null unless packing
+         */
+        @Nullable
+        final long[] mPacked;
+        @NonNull
+        final int[] mErrors;
+        int mSize;
+
+        Chunk(int capacity, boolean packed) {
+            mRaw = new CharSequence[capacity];
+            mE164 = packed ? null : new String[capacity];
+            mPacked = packed ? new long[capacity] : null;
+            mErrors = new int[capacity];
+        }
+
+        void fill(@NonNull Iterator<? extends CharSequence> numbers) {
+            while (mSize < mRaw.length && numbers.hasNext()) {
+                CharSequence number = numbers.next();
+                mRaw[mSize++] = number != null ? number : "";
+            }
+        }
+
+        void clear() {
+            for (int i = 0; i < mSize; i++) {
+                mRaw[i] = null;
+                if (mE164 != null) {
+                    mE164[i] = null;
+                }
+            }
+            mSize = 0;
+        }
+    }
+
+    private final class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        @NonNull
+        private final Chunk mChunk;
+        @NonNull
+        private final String mRegion;
+        private final int mFrom;
+        private final int mTo;
+
+        ChunkTask(@NonNull Chunk chunk, @NonNull String region, int from, int to) {
+            mChunk = chunk;
+            mRegion = region;
+            mFrom = from;
+            mTo = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (mTo - mFrom <= LEAF_SIZE) {
+                for (int i = mFrom; i < mTo; i++) {
+                    normalize(mChunk, mRegion, i);
+                }
+                return;
+            }
+            int middle = (mFrom + mTo) >>> 1;
+            invokeAll(new ChunkTask(mChunk, mRegion, mFrom, middle), new ChunkTask(mChunk, mRegion, middle, mTo));
+        }
+    }
+
+    /**
+     * Receives the normalized numbers
+     */
+    public interface Listener {
+        /**
+         * A number was normalized
+         *
+         * @param index position in the input
+         * @param raw   input number
+         * @param e164  number in E.164 format | null on parse error
+         * @param error ERROR_NONE, ERROR_INVALID_NUMBER or the parse error
+         */
+        void onNumber(int index, @NonNull CharSequence raw, @Nullable String e164, int error);
+    }
+
+    /**
+     * Receives the normalized numbers, packed
+     */
+    public interface PackedListener {
+        /**
+         * A number was normalized
+         *
+         * @param index  position in the input
+         * @param raw    input number
+         * @param packed packed number | {@link PackedPhoneNumber#NONE} on parse error or beyond 15 digits
+         * @param error  ERROR_NONE, ERROR_INVALID_NUMBER or the parse error
+         */
+        void onNumber(int index, @NonNull CharSequence raw, long packed, int error);
+    }
+}
@@ -0,0 +1,117 @@
+package net.rimoto.intlphoneinput;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Registry of the countries of {@code intlphoneinput/countries.json}, compiled into the struct-of-arrays
+ * {@link CountryTable} at build time. The table, its {@link Country} views and the indexes are immutable,
+ * so they are shared by every instance and thread; see {@link CountryList} for per-instance subsets and orders.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class Countries {
+
+    /**
+     * Countries in file order, one flyweight view per table row. Unmodifiable, the indexes point into it.
+     */
+    @NonNull
+    public static final List<Country> COUNTRIES;
+
+    /**
+     * ISO2 (both lower and upper case) to position in {@link #COUNTRIES}
+     */
+    @NonNull
+    private static final Map<String, Integer> ISO_INDEX = new HashMap<>();
+
+    /**
+     * Dial code to position in {@link #COUNTRIES} of the country with the best priority, -1 if unknown
+     */
+    @NonNull
+    private static final int[] DIAL_CODE_INDEX;
+
+    static {
+        Country[] countries = new Country[CountryTable.SIZE];
+        int maxDialCode = 0;
+        for (int i = 0; i < CountryTable.SIZE; i++) {
+            countries[i] = new Country(i);
+            maxDialCode = Math.max(maxDialCode, CountryTable.DIAL_CODES[i]);
+            ISO_INDEX.put(CountryTable.ISO[i], i);
+            ISO_INDEX.put(CountryTable.ISO[i].toLowerCase(Locale.US), i);
+        }
+        COUNTRIES = Collections.unmodifiableList(Arrays.asList(countries));
+
+        DIAL_CODE_INDEX = new int[maxDialCode + 1];
+        Arrays.fill(DIAL_CODE_INDEX, -1);
+        for (int i = 0; i < CountryTable.SIZE; i++) {
+            int dialCode = CountryTable.DIAL_CODES[i];
+            int current = DIAL_CODE_INDEX[dialCode];
+            if (current < 0 || CountryTable.PRIORITIES[current] > CountryTable.PRIORITIES[i]) {
+                DIAL_CODE_INDEX[dialCode] = i;
+            }
+        }
+    }
+
+    private Countries() {
+    }
+
+    /**
+     * Find country position
+     *
+     * @param country registry or free-standing Country | null
+     * @return position in {@link #COUNTRIES} | -1 if unknown
+     */
+    public static int indexOf(@Nullable Country country) {
+        if (country == null) {
+            return -1;
+        }
+        int position = country.getPosition();
+        return position >= 0 ? position : indexOfIso(country.getIso());
+    }
+
+    /**
+     * Find country position by ISO2
+     *
+     * @param iso ISO2 of country, any case
+     * @return position in {@link #COUNTRIES} | -1 if unknown
+     */
+    public static int indexOfIso(@Nullable String iso) {
+        if (iso == null) {
+            return -1;
+        }
+        Integer position = ISO_INDEX.get(iso);
+        if (position == null) {
+            position = ISO_INDEX.get(iso.toUpperCase(Locale.US));
+        }
+        return position != null ? position : -1;
+    }
+
+    /**
+     * Find country position by dial code.
+     * When several countries share the dial code, the one with the lowest priority wins (e.g. US for +1).
+     *
+     * @param dialCode int (without + prefix!)
+     * @return position in {@link #COUNTRIES} | -1 if unknown
+     */
+    public static int indexOfDialCode(int dialCode) {
+        return dialCode >= 0 && dialCode < DIAL_CODE_INDEX.length ? DIAL_CODE_INDEX[dialCode] : -1;
+    }
+
+    /**
+     * Get example mobile number of country in national format, formatted at build time
+     *
+     * @param country Country
+     * @return String | null if the country is not in the registry or has no example
+     */
+    @Nullable
+    public static String getExampleNumber(@NonNull Country country) {
+        int position = indexOf(country);
+        return position >= 0 ? CountryTable.EXAMPLE_NUMBERS[position] : null;
+    }
+}
@@ -0,0 +1,208 @@
+package net.rimoto.intlphoneinput;
+
+import android.support.annotation.NonNull;
+
+import java.util.Locale;
+
+/**
+ * Country of the registry, or a free-standing one built with a constructor.
+ * Registry countries are flyweight views of one row of the shared, immutable {@link CountryTable}
+ * and cannot be modified.
+ */
+@SuppressWarnings({"WeakerAccess", "unused", "NullableProblems"})
+public class Country {
+    /**
+     * Row in {@link CountryTable}, -1 for a free-standing country
+     */
+    private final int position;
+    /**
+     * Name of country, null for registry countries (as are the fields below)
+     */
+    private String name;
+    /**
+     * ISO2 of country
+     */
+    private String iso;
+    /**
+     * Dial code prefix of country
+     */
+    private int dialCode;
+    /**
+     * Priority among countries sharing the same dial code (0 is the main country)
+     */
+    private int priority;
+
+    /**
+     * Constructor
+     *
+     * @param name     String
+     * @param iso      String of ISO2
+     * @param dialCode int
+     */
+    public Country(@NonNull String name, @NonNull String iso, int dialCode) {
+        this(name, iso, dialCode, 0);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param name     String
+     * @param iso      String of ISO2
+     * @param dialCode int
+     * @param priority int, 0 for the main country of a shared dial code
+     */
+    public Country(@NonNull String name, @NonNull String iso, int dialCode, int priority) {
+        this.position = -1;
+        this.name = name;
+        this.iso = iso.toUpperCase();
+        this.dialCode = dialCode;
+        this.priority = priority;
+    }
+
+    /**
+     * Registry country, a view of a row of the country table
+     *
+     * @param position row in {@link CountryTable}
+     */
+    Country(int position) {
+        this.position = position;
+    }
+
+    /**
+     * Get row in the country table
+     *
+     * @return position in {@link Countries#COUNTRIES} | -1 for a free-standing country
+     */
+    int getPosition() {
+        return position;
+    }
+
+    /**
+     * Get name of country
+     *
+     * @return String
+     */
+    @NonNull
+    public String getName() {
+        return position >= 0 ? CountryTable.NAMES[position] : name;
+    }
+
+    /**
+     * Set name of country
+     *
+     * @param name String
+     * @deprecated registry countries are immutable, only free-standing ones can be modified
+     */
+    @Deprecated
+    public void setName(@NonNull String name) {
+        checkMutable();
+        this.name = name;
+    }
+
+    /**
+     * Get ISO2 of country
+     *
+     * @return String
+     */
+    @NonNull
+    public String getIso() {
+        return position >= 0 ? CountryTable.ISO[position] : iso;
+    }
+
+    /**
+     * Set ISO2 of country
+     *
+     * @param iso String
+     * @deprecated registry countries are immutable, only free-standing ones can be modified
+     */
+    @Deprecated
+    public void setIso(@NonNull String iso) {
+        checkMutable();
+        this.iso = iso.toUpperCase();
+    }
+
+    /**
+     * Get dial code prefix of country (like +1)
+     *
+     * @return int
+     */
+    public int getDialCode() {
+        return position >= 0 ? CountryTable.DIAL_CODES[position] : dialCode;
+    }
+
+    /**
+     * Set dial code prefix of country (like +1)
+     *
+     * @param dialCode int (without + prefix!)
+     * @deprecated registry countries are immutable, only free-standing ones can be modified
+     */
+    @Deprecated
+    public void setDialCode(int dialCode) {
+        checkMutable();
+        this.dialCode = dialCode;
+    }
+
+    /**
+     * Get priority among countries sharing the same dial code
+     *
+     * @return int, 0 for the main country
+     */
+    public int getPriority() {
+        return position >= 0 ? CountryTable.PRIORITIES[position] : priority;
+    }
+
+    /**
+     * Set priority among countries sharing the same dial code
+     *
+     * @param priority int, 0 for the main country
+     * @deprecated registry countries are immutable, only free-standing ones can be modified
+     */
+    @Deprecated
+    public void setPriority(int priority) {
+        checkMutable();
+        this.priority = priority;
+    }
+
+    /**
+     * Get country name in the display locale, see {@link CountryDisplayNames}
+     *
+     * @return String
+     */
+    @NonNull
+    public String getDisplayName() {
+        return CountryDisplayNames.getDisplayName(this);
+    }
+
+    /**
+     * Get country name in locale
+     *
+     * @param locale Locale
+     * @return String
+     */
+    @NonNull
+    public String getDisplayName(@NonNull Locale locale) {
+        return CountryDisplayNames.getDisplayName(this, locale);
+    }
+
+    /**
+     * Check if equals
+     *
+     * @param o Object to compare
+     * @return boolean
+     */
+    @Override
+    public boolean equals(Object o) {
+        return (o instanceof Country) && (((Country) o).getIso().toUpperCase().equals(this.getIso().toUpperCase()));
+    }
+
+    @Override
+    public int hashCode() {
+        return getIso().hashCode();
+    }
+
+    private void checkMutable() {
+        if (position >= 0) {
+            throw new UnsupportedOperationException("Countries of the registry are immutable");
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package net.rimoto.intlphoneinput;
+
+import android.support.annotation.NonNull;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Country display names by locale, each resolved once and shared.
+ * The display locale follows the device configuration on Android, see {@link #setLocale(Locale)}.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class CountryDisplayNames {
+    /**
+     * Names of the display locale
+     */
+    @NonNull
+    private static volatile Names sCurrent = new Names(Locale.getDefault());
+    /**
+     * Names of every locale used so far, guarded by the class
+     */
+    @NonNull
+    private static final Map<Locale, Names> sNames = new HashMap<>();
+
+    static {
+        sNames.put(sCurrent.mLocale, sCurrent);
+    }
+
+    private CountryDisplayNames() {
+    }
+
+    /**
+     * Set display locale, i.e. on a configuration change
+     *
+     * @param locale Locale
+     */
+    public static synchronized void setLocale(@NonNull Locale locale) {
+        if (!sCurrent.mLocale.equals(locale)) {
+            sCurrent = getNames(locale);
+        }
+    }
+
+    /**
+     * Get display locale
+     *
+     * @return Locale
+     */
+    @NonNull
+    public static Locale getLocale() {
+        return sCurrent.mLocale;
+    }
+
+    /**
+     * Get country name in the display locale
+     *
+     * @param country Country
+     * @return String
+     */
+    @NonNull
+    public static String getDisplayName(@NonNull Country country) {
+        return sCurrent.get(country.getIso());
+    }
+
+    /**
+     * Get country name in locale
+     *
+     * @param country Country
+     * @param locale  Locale
+     * @return String
+     */
+    @NonNull
+    public static String getDisplayName(@NonNull Country country, @NonNull Locale locale) {
+        Names names = sCurrent;
+        if (!names.mLocale.equals(locale)) {
+            synchronized (CountryDisplayNames.class) {
+                names = getNames(locale);
+            }
+        }
+        return names.get(country.getIso());
+    }
+
+    @NonNull
+    private static Names getNames(@NonNull Locale locale) {
+        Names names = sNames.get(locale);
+        if (names == null) {
+            names = new Names(locale);
+            sNames.put(locale, names);
+        }
+        return names;
+    }
+
+    /**
+     * Names of one locale by position in {@link Countries#COUNTRIES}, resolved on first use
+     */
+    private static final class Names {
+        @NonNull
+        final Locale mLocale;
+        @NonNull
+        private final String[] mNames;
+
+        Names(@NonNull Locale locale) {
+            mLocale = locale;
+            mNames = new String[Countries.COUNTRIES.size()];
+        }
+
+        @NonNull
+        String get(@NonNull String iso) {
+            int position = Countries.indexOfIso(iso);
+            if (position < 0) {
+                return resolve(iso);
+            }
+            String name = mNames[position];
+            if (name == null) {
+                name = resolve(iso);
+                mNames[position] = name;
+            }
+            return name;
+        }
+
+        @NonNull
+        private String resolve(@NonNull String iso) {
+            return new Locale("", iso).getDisplayCountry(mLocale);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package net.rimoto.intlphoneinput;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Texts of the country dropdown, built once per country of {@link Countries#COUNTRIES}
+ */
+@SuppressWarnings("WeakerAccess")
+public final class CountryLabels {
+    @NonNull
+    private static final String[] sItemLabels = new String[Countries.COUNTRIES.size()];
+    @NonNull
+    private static final String[] sValueLabels = new String[Countries.COUNTRIES.size()];
+
+    private CountryLabels() {
+    }
+
+    /**
+     * Get dropdown item text, i.e. "Israel (+972)"
+     *
+     * @param country Country
+     * @return String
+     */
+    @NonNull
+    public static String getItemLabel(@NonNull Country country) {
+        int position = getPosition(country);
+        if (position < 0) {
+            return formatItemLabel(country);
+        }
+        String label = sItemLabels[position];
+        if (label == null) {
+            label = formatItemLabel(country);
+            sItemLabels[position] = label;
+        }
+        return label;
+    }
+
+    /**
+     * Get selected value text, i.e. "+972"
+     *
+     * @param country Country
+     * @return String
+     */
+    @NonNull
+    public static String getValueLabel(@NonNull Country country) {
+        int position = getPosition(country);
+        if (position < 0) {
+            return formatValueLabel(country);
+        }
+        String label = sValueLabels[position];
+        if (label == null) {
+            label = formatValueLabel(country);
+            sValueLabels[position] = label;
+        }
+        return label;
+    }
+
+    /**
+     * Position of the registry country, labels of other Country instances are not kept
+     */
+    private static int getPosition(@NonNull Country country) {
+        return country.getPosition();
+    }
+
+    @NonNull
+    private static String formatItemLabel(@NonNull Country country) {
+        return country.getName() + " (+" + country.getDialCode() + ")";
+    }
+
+    @NonNull
+    private static String formatValueLabel(@NonNull Country country) {
+        return "+" + country.getDialCode();
+    }
+}
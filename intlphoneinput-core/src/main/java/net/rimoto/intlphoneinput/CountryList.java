@@ -0,0 +1,203 @@
+package net.rimoto.intlphoneinput;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable subset and order of the registry countries, i.e. the countries of one {@code IntlPhoneInput}.
+ * Only the table positions are kept, the elements are the shared {@link Country} views of
+ * {@link Countries#COUNTRIES}; lookups by ISO2 or table position are O(1).
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class CountryList extends AbstractList<Country> implements RandomAccess {
+    @Nullable
+    private static CountryList sAll;
+
+    /**
+     * Table position of each element
+     */
+    @NonNull
+    private final int[] mPositions;
+    /**
+     * Index in this list of each table position, -1 if not in it
+     */
+    @NonNull
+    private final int[] mIndexes;
+    private int mHashCode;
+
+    private CountryList(@NonNull int[] positions) {
+        mPositions = positions;
+        mIndexes = new int[Countries.COUNTRIES.size()];
+        Arrays.fill(mIndexes, -1);
+        for (int i = 0; i < positions.length; i++) {
+            mIndexes[positions[i]] = i;
+        }
+    }
+
+    /**
+     * Get every registry country, in file order
+     *
+     * @return CountryList
+     */
+    @NonNull
+    public static synchronized CountryList all() {
+        if (sAll == null) {
+            int[] positions = new int[Countries.COUNTRIES.size()];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = i;
+            }
+            sAll = new CountryList(positions);
+        }
+        return sAll;
+    }
+
+    /**
+     * Keep only some countries, in the order of this list
+     *
+     * @param isos ISO2 of the kept countries, any case; unknown ones are ignored
+     * @return CountryList
+     */
+    @NonNull
+    public CountryList only(@NonNull Collection<String> isos) {
+        boolean[] kept = new boolean[mIndexes.length];
+        for (String iso : isos) {
+            int position = Countries.indexOfIso(iso);
+            if (position >= 0) {
+                kept[position] = true;
+            }
+        }
+        int[] positions = new int[mPositions.length];
+        int size = 0;
+        for (int position : mPositions) {
+            if (kept[position]) {
+                positions[size++] = position;
+            }
+        }
+        return new CountryList(Arrays.copyOf(positions, size));
+    }
+
+    /**
+     * Move some countries first, in the given order; the others follow in the order of this list
+     *
+     * @param isos ISO2 of the preferred countries, any case; unknown ones and countries not in this list are ignored
+     * @return CountryList
+     */
+    @NonNull
+    public CountryList preferring(@NonNull List<String> isos) {
+        int[] positions = new int[mPositions.length];
+        boolean[] moved = new boolean[mIndexes.length];
+        int size = 0;
+        for (String iso : isos) {
+            int position = Countries.indexOfIso(iso);
+            if (position >= 0 && mIndexes[position] >= 0 && !moved[position]) {
+                moved[position] = true;
+                positions[size++] = position;
+            }
+        }
+        for (int position : mPositions) {
+            if (!moved[position]) {
+                positions[size++] = position;
+            }
+        }
+        return new CountryList(positions);
+    }
+
+    /**
+     * Sort the countries, i.e. by display name or by priority
+     *
+     * @param comparator Comparator, stable for equal countries
+     * @return CountryList
+     */
+    @NonNull
+    public CountryList sorted(@NonNull Comparator<? super Country> comparator) {
+        Country[] countries = toArray(new Country[mPositions.length]);
+        Arrays.sort(countries, comparator);
+        int[] positions = new int[countries.length];
+        for (int i = 0; i < countries.length; i++) {
+            positions[i] = countries[i].getPosition();
+        }
+        return new CountryList(positions);
+    }
+
+    @NonNull
+    @Override
+    public Country get(int index) {
+        return Countries.COUNTRIES.get(mPositions[index]);
+    }
+
+    @Override
+    public int size() {
+        return mPositions.length;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        return o instanceof Country ? indexOfTablePosition(Countries.indexOf((Country) o)) : -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    /**
+     * Find country index by ISO2
+     *
+     * @param iso ISO2 of country, any case
+     * @return index in this list | -1 if not in it
+     */
+    public int indexOfIso(@Nullable String iso) {
+        return indexOfTablePosition(Countries.indexOfIso(iso));
+    }
+
+    /**
+     * Find country index by position in the registry
+     *
+     * @param position position in {@link Countries#COUNTRIES} | -1
+     * @return index in this list | -1 if not in it
+     */
+    public int indexOfTablePosition(int position) {
+        return position >= 0 && position < mIndexes.length ? mIndexes[position] : -1;
+    }
+
+    /**
+     * Get position in the registry of a country
+     *
+     * @param index index in this list
+     * @return position in {@link Countries#COUNTRIES}
+     */
+    public int getTablePosition(int index) {
+        return mPositions[index];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof CountryList) {
+            return Arrays.equals(mPositions, ((CountryList) o).mPositions);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        // Immutable: the element-wise hash of List is computed once
+        int hashCode = mHashCode;
+        if (hashCode == 0) {
+            hashCode = super.hashCode();
+            mHashCode = hashCode;
+        }
+        return hashCode;
+    }
+}
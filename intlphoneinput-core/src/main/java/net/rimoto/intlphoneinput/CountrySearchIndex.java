@@ -0,0 +1,263 @@
+package net.rimoto.intlphoneinput;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Prefix index over the words of the country names (native, English and in the display locale),
+ * ISO codes and dial codes.
+ * Keys are kept sorted, so the keys of a prefix are one binary search and a contiguous scan away.
+ * Each query word must prefix a key of the country; results are positions in the country list, in list order.
+ * <p>
+ * Searching reuses internal buffers and is synchronized.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class CountrySearchIndex {
+    @Nullable
+    private static CountrySearchIndex sDefault;
+
+    @NonNull
+    private final Locale mLocale;
+    private final int mCountryCount;
+    /**
+     * Normalized keys, sorted
+     */
+    @NonNull
+    private final String[] mKeys;
+    /**
+     * Country position of each key
+     */
+    @NonNull
+    private final int[] mPositions;
+    private final int mKeySize;
+
+    // Search buffers: a country matched the query words so far if its stamp is the current search
+    @NonNull
+    private final int[] mStamps;
+    @NonNull
+    private final int[] mMatchedWords;
+    private int mSearch;
+
+    /**
+     * Constructor, with the names of the display locale of {@link CountryDisplayNames}
+     *
+     * @param countries countries to index
+     */
+    public CountrySearchIndex(@NonNull List<Country> countries) {
+        this(countries, CountryDisplayNames.getLocale());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param countries countries to index
+     * @param locale    locale of the indexed display names, besides English
+     */
+    public CountrySearchIndex(@NonNull List<Country> countries, @NonNull Locale locale) {
+        mLocale = locale;
+        mCountryCount = countries.size();
+        List<Key> keys = new ArrayList<>(mCountryCount * 6);
+        for (int position = 0; position < mCountryCount; position++) {
+            Country country = countries.get(position);
+            addWords(keys, country.getName(), position);
+            addWords(keys, country.getDisplayName(Locale.US), position);
+            if (!Locale.US.equals(locale)) {
+                addWords(keys, country.getDisplayName(locale), position);
+            }
+            addWords(keys, country.getIso(), position);
+            addWords(keys, String.valueOf(country.getDialCode()), position);
+        }
+        Key[] sorted = keys.toArray(new Key[keys.size()]);
+        Arrays.sort(sorted);
+
+        int size = 0;
+        mKeys = new String[sorted.length];
+        mPositions = new int[sorted.length];
+        for (Key key : sorted) {
+            // Duplicates, like a native name equal to the English one
+            if (size > 0 && mPositions[size - 1] == key.mPosition && mKeys[size - 1].equals(key.mWord)) {
+                continue;
+            }
+            mKeys[size] = key.mWord;
+            mPositions[size] = key.mPosition;
+            size++;
+        }
+        mStamps = new int[mCountryCount];
+        mMatchedWords = new int[mCountryCount];
+        mKeySize = size;
+    }
+
+    /**
+     * Get index of {@link Countries#COUNTRIES}, built on first use and when the display locale changed
+     *
+     * @return CountrySearchIndex
+     */
+    @NonNull
+    public static synchronized CountrySearchIndex getDefault() {
+        if (sDefault == null || !sDefault.mLocale.equals(CountryDisplayNames.getLocale())) {
+            sDefault = new CountrySearchIndex(Countries.COUNTRIES);
+        }
+        return sDefault;
+    }
+
+    /**
+     * Get index of {@link Countries#COUNTRIES} without building it, i.e. on the main thread
+     * while {@link #getDefault()} builds it in the background
+     *
+     * @return CountrySearchIndex | null if not built yet or the display locale changed since
+     */
+    @Nullable
+    public static synchronized CountrySearchIndex peekDefault() {
+        return sDefault != null && sDefault.mLocale.equals(CountryDisplayNames.getLocale()) ? sDefault : null;
+    }
+
+    /**
+     * Search countries
+     *
+     * @param query     words typed by the user, i.e. "united k", "+44" or "gb"
+     * @param positions receives the positions of the matching countries, at least as long as the country list
+     * @return number of matching countries; all of them for an empty query
+     */
+    public synchronized int search(@NonNull CharSequence query, @NonNull int[] positions) {
+        String normalized = normalize(query.toString());
+        if (++mSearch == 0) {
+            Arrays.fill(mStamps, 0);
+            mSearch = 1;
+        }
+
+        int words = 0;
+        int length = normalized.length();
+        int start = 0;
+        while (start < length) {
+            if (!Character.isLetterOrDigit(normalized.charAt(start))) {
+                start++;
+                continue;
+            }
+            int end = start + 1;
+            while (end < length && Character.isLetterOrDigit(normalized.charAt(end))) {
+                end++;
+            }
+            words++;
+            match(normalized, start, end, words);
+            start = end;
+        }
+
+        int count = 0;
+        for (int position = 0; position < mCountryCount; position++) {
+            if (words == 0 || (mStamps[position] == mSearch && mMatchedWords[position] == words)) {
+                positions[count++] = position;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Count word as matched for the countries having a key it prefixes
+     */
+    private void match(@NonNull String query, int start, int end, int word) {
+        for (int i = lowerBound(query, start, end); i < mKeySize && isPrefix(query, start, end, mKeys[i]); i++) {
+            int position = mPositions[i];
+            if (word == 1) {
+                if (mStamps[position] != mSearch) {
+                    mStamps[position] = mSearch;
+                    mMatchedWords[position] = 1;
+                }
+            } else if (mStamps[position] == mSearch && mMatchedWords[position] == word - 1) {
+                mMatchedWords[position] = word;
+            }
+        }
+    }
+
+    /**
+     * First key not smaller than the query word
+     */
+    private int lowerBound(@NonNull String query, int start, int end) {
+        int low = 0;
+        int high = mKeySize;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(mKeys[middle], query, start, end) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int compare(@NonNull String key, @NonNull String query, int start, int end) {
+        int length = Math.min(key.length(), end - start);
+        for (int i = 0; i < length; i++) {
+            int diff = key.charAt(i) - query.charAt(start + i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return key.length() - (end - start);
+    }
+
+    private static boolean isPrefix(@NonNull String query, int start, int end, @NonNull String key) {
+        return key.length() >= end - start && key.regionMatches(0, query, start, end - start);
+    }
+
+    private static void addWords(@NonNull List<Key> keys, @NonNull String text, int position) {
+        String normalized = normalize(text);
+        int length = normalized.length();
+        int start = 0;
+        while (start < length) {
+            if (!Character.isLetterOrDigit(normalized.charAt(start))) {
+                start++;
+                continue;
+            }
+            int end = start + 1;
+            while (end < length && Character.isLetterOrDigit(normalized.charAt(end))) {
+                end++;
+            }
+            keys.add(new Key(normalized.substring(start, end), position));
+            start = end;
+        }
+    }
+
+    /**
+     * Lower case without diacritics, so "sao" finds "São Tomé"
+     */
+    @NonNull
+    private static String normalize(@NonNull String text) {
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.US), Normalizer.Form.NFD);
+        StringBuilder builder = null;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                if (builder == null) {
+                    builder = new StringBuilder(decomposed.length()).append(decomposed, 0, i);
+                }
+            } else if (builder != null) {
+                builder.append(c);
+            }
+        }
+        return builder != null ? builder.toString() : decomposed;
+    }
+
+    private static final class Key implements Comparable<Key> {
+        @NonNull
+        final String mWord;
+        final int mPosition;
+
+        Key(@NonNull String word, int position) {
+            mWord = word;
+            mPosition = position;
+        }
+
+        @Override
+        public int compareTo(@NonNull Key other) {
+            int result = mWord.compareTo(other.mWord);
+            return result != 0 ? result : mPosition - other.mPosition;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package net.rimoto.intlphoneinput;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Digit trie over the dial codes of the countries, extended by their area codes (e.g. +1 204 for Canada),
+ * so the country of a number is known from its first digits without parsing it.
+ * A key shared by several countries belongs to the one with the lowest priority; the selected country is kept
+ * as long as one of its own keys still matches the digits.
+ * <p>
+ * Immutable, thread-safe and lookups do not allocate.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class DialCodeTrie {
+    private static final int RADIX = 10;
+
+    @Nullable
+    private static DialCodeTrie sDefault;
+
+    /**
+     * Child of each node by digit, at node * RADIX + digit, 0 if none (the root is node 0)
+     */
+    @NonNull
+    private final int[] mChildren;
+    /**
+     * Parent of each node
+     */
+    @NonNull
+    private final int[] mParents;
+    /**
+     * Depth of each node, the number of digits of its key
+     */
+    @NonNull
+    private final int[] mDepths;
+    /**
+     * Country position whose key ends at each node, -1 if none
+     */
+    @NonNull
+    private final int[] mCountries;
+    /**
+     * Priority of the country of each node
+     */
+    @NonNull
+    private final int[] mPriorities;
+    /**
+     * Nodes of the keys that keep each country selected: its area codes, or its dial code if it has none
+     */
+    @NonNull
+    private final int[][] mOwnNodes;
+    private final int mMaxDepth;
+    private int mNodeCount = 1;
+
+    /**
+     * Constructor
+     *
+     * @param countries countries to index
+     * @param areaCodes area codes of each country, by position, null entries for none
+     */
+    public DialCodeTrie(@NonNull List<Country> countries, @NonNull String[][] areaCodes) {
+        int capacity = 1;
+        for (int position = 0; position < countries.size(); position++) {
+            int dialCodeLength = String.valueOf(countries.get(position).getDialCode()).length();
+            capacity += dialCodeLength;
+            String[] codes = areaCodes[position];
+            if (codes != null) {
+                for (String code : codes) {
+                    capacity += dialCodeLength + code.length();
+                }
+            }
+        }
+        mChildren = new int[capacity * RADIX];
+        mParents = new int[capacity];
+        mDepths = new int[capacity];
+        mCountries = new int[capacity];
+        mPriorities = new int[capacity];
+        Arrays.fill(mCountries, -1);
+        mOwnNodes = new int[countries.size()][];
+
+        int maxDepth = 0;
+        for (int position = 0; position < countries.size(); position++) {
+            Country country = countries.get(position);
+            String dialCode = String.valueOf(country.getDialCode());
+            int dialCodeNode = add(dialCode, position, country.getPriority());
+            maxDepth = Math.max(maxDepth, mDepths[dialCodeNode]);
+
+            String[] codes = areaCodes[position];
+            if (codes == null || codes.length == 0) {
+                mOwnNodes[position] = new int[]{dialCodeNode};
+                continue;
+            }
+            int[] nodes = new int[codes.length];
+            for (int i = 0; i < codes.length; i++) {
+                // Area codes are the country's own, they win over the priority of the dial code
+                nodes[i] = add(dialCode + codes[i], position, Integer.MIN_VALUE);
+                maxDepth = Math.max(maxDepth, mDepths[nodes[i]]);
+            }
+            mOwnNodes[position] = nodes;
+        }
+        mMaxDepth = maxDepth;
+    }
+
+    /**
+     * Get trie of {@link Countries#COUNTRIES}
+     *
+     * @return DialCodeTrie
+     */
+    @NonNull
+    public static synchronized DialCodeTrie getDefault() {
+        if (sDefault == null) {
+            sDefault = new DialCodeTrie(Countries.COUNTRIES, CountryTable.AREA_CODES);
+        }
+        return sDefault;
+    }
+
+    /**
+     * Get the number of digits that can decide the country
+     *
+     * @return length of the longest key
+     */
+    public int getMaxDigits() {
+        return mMaxDepth;
+    }
+
+    /**
+     * Find the country of the text typed so far.
+     * Only text starting with + (leading spaces aside) is looked up; separators between the digits are skipped.
+     *
+     * @param text     phone text
+     * @param selected position of the selected country | -1 if none
+     * @return position in the country list | -1 to keep the selection (unknown or still ambiguous)
+     */
+    public int find(@NonNull CharSequence text, int selected) {
+        int length = text.length();
+        int i = 0;
+        while (i < length && text.charAt(i) == ' ') {
+            i++;
+        }
+        if (i == length || text.charAt(i) != '+') {
+            return -1;
+        }
+        i++;
+
+        int node = 0;
+        int match = 0;
+        boolean open = true;
+        for (; i < length && mDepths[node] < mMaxDepth; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                if (isSeparator(c)) {
+                    continue;
+                }
+                break;
+            }
+            int child = mChildren[node * RADIX + (c - '0')];
+            if (child == 0) {
+                open = false;
+                break;
+            }
+            node = child;
+            if (mCountries[node] >= 0) {
+                match = node;
+            }
+        }
+        return resolve(node, match, open, selected);
+    }
+
+    /**
+     * Find the country of a parsed number
+     *
+     * @param countryCode    country calling code
+     * @param nationalNumber national significant number
+     * @param selected       position of the selected country | -1 if none
+     * @return position in the country list | -1 to keep the selection
+     */
+    public int find(int countryCode, long nationalNumber, int selected) {
+        if (countryCode <= 0) {
+            return -1;
+        }
+        int node = 0;
+        int match = 0;
+        boolean open = true;
+        int countryCodeDigits = countDigits(countryCode);
+        int nationalDigits = nationalNumber > 0 ? countDigits(nationalNumber) : 0;
+        for (int i = 0; i < countryCodeDigits + nationalDigits && mDepths[node] < mMaxDepth; i++) {
+            int digit = i < countryCodeDigits
+                    ? digitAt(countryCode, countryCodeDigits, i)
+                    : digitAt(nationalNumber, nationalDigits, i - countryCodeDigits);
+            int child = mChildren[node * RADIX + digit];
+            if (child == 0) {
+                open = false;
+                break;
+            }
+            node = child;
+            if (mCountries[node] >= 0) {
+                match = node;
+            }
+        }
+        return resolve(node, match, open, selected);
+    }
+
+    /**
+     * @param node  last node reached
+     * @param match deepest node reached with a country, 0 if none
+     * @param open  true if more digits could still reach a longer key
+     */
+    private int resolve(int node, int match, boolean open, int selected) {
+        if (selected >= 0 && selected < mOwnNodes.length) {
+            for (int own : mOwnNodes[selected]) {
+                if (own == match || (open && isDescendant(own, node))) {
+                    return -1;
+                }
+            }
+        }
+        int position = match != 0 ? mCountries[match] : -1;
+        return position != selected ? position : -1;
+    }
+
+    private boolean isDescendant(int node, int ancestor) {
+        int depth = mDepths[ancestor];
+        while (mDepths[node] > depth) {
+            node = mParents[node];
+        }
+        return node == ancestor;
+    }
+
+    private int add(@NonNull String key, int position, int priority) {
+        int node = 0;
+        for (int i = 0; i < key.length(); i++) {
+            int slot = node * RADIX + (key.charAt(i) - '0');
+            int child = mChildren[slot];
+            if (child == 0) {
+                child = mNodeCount++;
+                mChildren[slot] = child;
+                mParents[child] = node;
+                mDepths[child] = mDepths[node] + 1;
+            }
+            node = child;
+        }
+        if (mCountries[node] < 0 || priority < mPriorities[node]) {
+            mCountries[node] = position;
+            mPriorities[node] = priority;
+        }
+        return node;
+    }
+
+    private static int countDigits(long value) {
+        int digits = 1;
+        while (value >= RADIX) {
+            value /= RADIX;
+            digits++;
+        }
+        return digits;
+    }
+
+    /**
+     * Digit at index of value, from the most significant one
+     */
+    private static int digitAt(long value, int digits, int index) {
+        for (int i = index + 1; i < digits; i++) {
+            value /= RADIX;
+        }
+        return (int) (value % RADIX);
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '-' || c == '(' || c == ')' || c == '.' || c == '/' || c == ' ';
+    }
+}
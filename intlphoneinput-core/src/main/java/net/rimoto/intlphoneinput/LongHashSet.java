@@ -0,0 +1,216 @@
+package net.rimoto.intlphoneinput;
+
+import android.support.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Set of longs, i.e. {@link PackedPhoneNumber packed numbers}, in one open-addressing long array:
+ * 8 to 16 bytes per element instead of a Long and a map entry. Linear probing on Fibonacci hashes,
+ * 0 marks a free slot (the key 0 itself is kept aside) and removal shifts the following keys back.
+ * <p>
+ * Not thread-safe.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class LongHashSet {
+    private static final int MIN_CAPACITY = 8;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final long PHI = 0x9E3779B97F4A7C15L;
+
+    @NonNull
+    private long[] mKeys;
+    /**
+     * 64 minus the log2 of the capacity, the hash is the top bits of key * PHI
+     */
+    private int mShift;
+    private int mResizeAt;
+    private int mSize;
+    private boolean mHasZero;
+
+    public LongHashSet() {
+        this(0);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param expectedSize elements held without resizing
+     */
+    public LongHashSet(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Add a key
+     *
+     * @param key long
+     * @return true if it was not in the set
+     */
+    public boolean add(long key) {
+        if (key == 0) {
+            if (mHasZero) {
+                return false;
+            }
+            mHasZero = true;
+            mSize++;
+            return true;
+        }
+        long[] keys = mKeys;
+        int mask = keys.length - 1;
+        for (int slot = hash(key); ; slot = (slot + 1) & mask) {
+            long existing = keys[slot];
+            if (existing == key) {
+                return false;
+            }
+            if (existing == 0) {
+                keys[slot] = key;
+                if (++mSize > mResizeAt) {
+                    rehash(keys.length * 2);
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Check if a key is in the set
+     *
+     * @param key long
+     * @return boolean
+     */
+    public boolean contains(long key) {
+        if (key == 0) {
+            return mHasZero;
+        }
+        long[] keys = mKeys;
+        int mask = keys.length - 1;
+        for (int slot = hash(key); ; slot = (slot + 1) & mask) {
+            long existing = keys[slot];
+            if (existing == key) {
+                return true;
+            }
+            if (existing == 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Remove a key
+     *
+     * @param key long
+     * @return true if it was in the set
+     */
+    public boolean remove(long key) {
+        if (key == 0) {
+            if (!mHasZero) {
+                return false;
+            }
+            mHasZero = false;
+            mSize--;
+            return true;
+        }
+        long[] keys = mKeys;
+        int mask = keys.length - 1;
+        for (int slot = hash(key); ; slot = (slot + 1) & mask) {
+            long existing = keys[slot];
+            if (existing == key) {
+                shiftBack(slot);
+                mSize--;
+                return true;
+            }
+            if (existing == 0) {
+                return false;
+            }
+        }
+    }
+
+    public int size() {
+        return mSize;
+    }
+
+    public boolean isEmpty() {
+        return mSize == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(mKeys, 0);
+        mHasZero = false;
+        mSize = 0;
+    }
+
+    /**
+     * Get the keys
+     *
+     * @return new array, in no particular order
+     */
+    @NonNull
+    public long[] toArray() {
+        long[] array = new long[mSize];
+        int size = 0;
+        if (mHasZero) {
+            size++;
+        }
+        for (long key : mKeys) {
+            if (key != 0) {
+                array[size++] = key;
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Fill the slot of a removed key with the following keys of its probe run that may not skip it
+     */
+    private void shiftBack(int slot) {
+        long[] keys = mKeys;
+        int mask = keys.length - 1;
+        int free = slot;
+        for (int next = (free + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            int home = hash(keys[next]);
+            // The key may move to the free slot if its home is not cyclically within (free, next]
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                free = next;
+            }
+        }
+        keys[free] = 0;
+    }
+
+    private int hash(long key) {
+        return (int) ((key * PHI) >>> mShift);
+    }
+
+    private void rehash(int capacity) {
+        long[] old = mKeys;
+        allocate(capacity);
+        long[] keys = mKeys;
+        int mask = keys.length - 1;
+        for (long key : old) {
+            if (key != 0) {
+                int slot = hash(key);
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        mKeys = new long[capacity];
+        mShift = 64 - Integer.numberOfTrailingZeros(capacity);
+        mResizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    static int capacityFor(int expectedSize) {
+        long capacity = MIN_CAPACITY;
+        while (capacity * LOAD_FACTOR < expectedSize) {
+            capacity <<= 1;
+        }
+        if (capacity > 1 << 30) {
+            throw new IllegalArgumentException("Too many elements: " + expectedSize);
+        }
+        return (int) capacity;
+    }
+}
@@ -0,0 +1,239 @@
+package net.rimoto.intlphoneinput;
+
+import android.support.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Map of longs to ints, i.e. {@link PackedPhoneNumber packed numbers} to row indexes for joins,
+ * in parallel open-addressing arrays laid out like {@link LongHashSet}.
+ * <p>
+ * Not thread-safe.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class LongIntHashMap {
+    private static final long PHI = 0x9E3779B97F4A7C15L;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    @NonNull
+    private long[] mKeys;
+    @NonNull
+    private int[] mValues;
+    private int mShift;
+    private int mResizeAt;
+    private int mSize;
+    private boolean mHasZero;
+    private int mZeroValue;
+
+    public LongIntHashMap() {
+        this(0);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param expectedSize entries held without resizing
+     */
+    public LongIntHashMap(int expectedSize) {
+        allocate(LongHashSet.capacityFor(expectedSize));
+    }
+
+    /**
+     * Map a key to a value, replacing its previous value
+     *
+     * @param key   long
+     * @param value int
+     */
+    public void put(long key, int value) {
+        int slot = insert(key, value);
+        if (slot >= 0) {
+            mValues[slot] = value;
+        } else if (slot == -1) {
+            mZeroValue = value;
+        }
+    }
+
+    /**
+     * Map a key to a value unless it is mapped, e.g. to keep the first row of every number
+     *
+     * @param key   long
+     * @param value int
+     * @return the value now mapped: the existing one, or value if the key was added
+     */
+    public int putIfAbsent(long key, int value) {
+        int slot = insert(key, value);
+        if (slot >= 0) {
+            return mValues[slot];
+        }
+        return slot == -1 ? mZeroValue : value;
+    }
+
+    /**
+     * Get value of a key
+     *
+     * @param key          long
+     * @param defaultValue returned if the key is not mapped
+     * @return int
+     */
+    public int get(long key, int defaultValue) {
+        if (key == 0) {
+            return mHasZero ? mZeroValue : defaultValue;
+        }
+        int slot = find(key);
+        return slot >= 0 ? mValues[slot] : defaultValue;
+    }
+
+    public boolean containsKey(long key) {
+        return key == 0 ? mHasZero : find(key) >= 0;
+    }
+
+    /**
+     * Remove a key
+     *
+     * @param key long
+     * @return true if it was mapped
+     */
+    public boolean remove(long key) {
+        if (key == 0) {
+            if (!mHasZero) {
+                return false;
+            }
+            mHasZero = false;
+            mSize--;
+            return true;
+        }
+        int slot = find(key);
+        if (slot < 0) {
+            return false;
+        }
+        shiftBack(slot);
+        mSize--;
+        return true;
+    }
+
+    public int size() {
+        return mSize;
+    }
+
+    public boolean isEmpty() {
+        return mSize == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(mKeys, 0);
+        mHasZero = false;
+        mSize = 0;
+    }
+
+    /**
+     * Get the keys
+     *
+     * @return new array, in no particular order
+     */
+    @NonNull
+    public long[] keys() {
+        long[] array = new long[mSize];
+        int size = 0;
+        if (mHasZero) {
+            size++;
+        }
+        for (long key : mKeys) {
+            if (key != 0) {
+                array[size++] = key;
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Add a key unless it is mapped, with value if added
+     *
+     * @return slot of an existing non-zero key, -1 for an existing zero key, -2 if added
+     */
+    private int insert(long key, int value) {
+        if (key == 0) {
+            if (mHasZero) {
+                return -1;
+            }
+            mHasZero = true;
+            mZeroValue = value;
+            mSize++;
+            return -2;
+        }
+        long[] keys = mKeys;
+        int mask = keys.length - 1;
+        for (int slot = hash(key); ; slot = (slot + 1) & mask) {
+            long existing = keys[slot];
+            if (existing == key) {
+                return slot;
+            }
+            if (existing == 0) {
+                keys[slot] = key;
+                mValues[slot] = value;
+                if (++mSize > mResizeAt) {
+                    rehash(keys.length * 2);
+                }
+                return -2;
+            }
+        }
+    }
+
+    private int find(long key) {
+        long[] keys = mKeys;
+        int mask = keys.length - 1;
+        for (int slot = hash(key); ; slot = (slot + 1) & mask) {
+            long existing = keys[slot];
+            if (existing == key) {
+                return slot;
+            }
+            if (existing == 0) {
+                return -1;
+            }
+        }
+    }
+
+    private void shiftBack(int slot) {
+        long[] keys = mKeys;
+        int mask = keys.length - 1;
+        int free = slot;
+        for (int next = (free + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            int home = hash(keys[next]);
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                mValues[free] = mValues[next];
+                free = next;
+            }
+        }
+        keys[free] = 0;
+    }
+
+    private int hash(long key) {
+        return (int) ((key * PHI) >>> mShift);
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = mKeys;
+        int[] oldValues = mValues;
+        allocate(capacity);
+        long[] keys = mKeys;
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != 0) {
+                int slot = hash(key);
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                mValues[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        mKeys = new long[capacity];
+        mValues = new int[capacity];
+        mShift = 64 - Integer.numberOfTrailingZeros(capacity);
+        mResizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+}
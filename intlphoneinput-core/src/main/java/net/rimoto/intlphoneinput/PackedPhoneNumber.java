@@ -0,0 +1,207 @@
+package net.rimoto.intlphoneinput;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.Phonenumber;
+
+/**
+ * E.164 number packed into one positive long, for deduplicating and joining many numbers without
+ * a String or PhoneNumber per number (see {@link LongHashSet} and {@link LongIntHashMap}):
+ * <pre>
+ * bits 53-62: country calling code (1-999)
+ * bits 50-52: leading zeros of the national significant number (Italian leading zero, 0-7)
+ * bits  0-49: national number (at most 15 digits)
+ * </pre>
+ * Equal numbers pack to equal longs, which sort by calling code. Extensions and raw input are not kept.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class PackedPhoneNumber {
+    /**
+     * Not a packable number, i.e. a parse error or more than the 15 digits of E.164
+     */
+    public static final long NONE = -1L;
+
+    /**
+     * Digits of an E.164 number, calling code included
+     */
+    public static final int MAX_DIGITS = 15;
+
+    private static final int COUNTRY_CODE_SHIFT = 53;
+    private static final int LEADING_ZEROS_SHIFT = 50;
+    private static final int MAX_COUNTRY_CODE = 999;
+    private static final int MAX_LEADING_ZEROS = 7;
+    private static final long NATIONAL_NUMBER_MASK = (1L << LEADING_ZEROS_SHIFT) - 1;
+    private static final String UNKNOWN_REGION = "ZZ";
+
+    private PackedPhoneNumber() {
+    }
+
+    /**
+     * Pack a parsed number
+     *
+     * @param number PhoneNumber
+     * @return packed number | {@link #NONE} if it has more than 15 digits
+     */
+    public static long pack(@NonNull Phonenumber.PhoneNumber number) {
+        return pack(number.getCountryCode(), number.getNationalNumber(),
+                number.isItalianLeadingZero() ? number.getNumberOfLeadingZeros() : 0);
+    }
+
+    /**
+     * Pack a number
+     *
+     * @param countryCode    country calling code
+     * @param nationalNumber national number, without its leading zeros
+     * @param leadingZeros   leading zeros of the national significant number
+     * @return packed number | {@link #NONE} if it has more than 15 digits
+     */
+    public static long pack(int countryCode, long nationalNumber, int leadingZeros) {
+        if (countryCode < 1 || countryCode > MAX_COUNTRY_CODE || nationalNumber < 0
+                || leadingZeros < 0 || leadingZeros > MAX_LEADING_ZEROS
+                || countDigits(countryCode) + leadingZeros + countDigits(nationalNumber) > MAX_DIGITS) {
+            return NONE;
+        }
+        return ((long) countryCode << COUNTRY_CODE_SHIFT) | ((long) leadingZeros << LEADING_ZEROS_SHIFT) | nationalNumber;
+    }
+
+    /**
+     * Pack a number in E.164 format, e.g. from {@link PhoneNumberState#getE164()}, without parsing it
+     *
+     * @param phoneUtil PhoneNumberUtil knowing the calling codes
+     * @param e164      + followed by the digits of the number
+     * @return packed number | {@link #NONE} if not in E.164 format or of an unknown calling code
+     */
+    public static long pack(@NonNull PhoneNumberUtil phoneUtil, @NonNull CharSequence e164) {
+        int length = e164.length();
+        if (length < 3 || length > MAX_DIGITS + 1 || e164.charAt(0) != '+') {
+            return NONE;
+        }
+        for (int i = 1; i < length; i++) {
+            char c = e164.charAt(i);
+            if (c < '0' || c > '9') {
+                return NONE;
+            }
+        }
+        if (e164.charAt(1) == '0') {
+            return NONE;
+        }
+        // Calling codes are a prefix code: at most one of the first three digits is one
+        int countryCode = 0;
+        int countryCodeEnd = 0;
+        for (int i = 1; i <= 3 && i < length; i++) {
+            countryCode = countryCode * 10 + (e164.charAt(i) - '0');
+            if (!UNKNOWN_REGION.equals(phoneUtil.getRegionCodeForCountryCode(countryCode))) {
+                countryCodeEnd = i + 1;
+                break;
+            }
+        }
+        if (countryCodeEnd == 0 || countryCodeEnd == length) {
+            return NONE;
+        }
+        // Leading zeros like libphonenumber: all but the last digit of the national significant number
+        int leadingZeros = 0;
+        while (countryCodeEnd + leadingZeros < length - 1 && e164.charAt(countryCodeEnd + leadingZeros) == '0') {
+            leadingZeros++;
+        }
+        long nationalNumber = 0;
+        for (int i = countryCodeEnd + leadingZeros; i < length; i++) {
+            nationalNumber = nationalNumber * 10 + (e164.charAt(i) - '0');
+        }
+        return pack(countryCode, nationalNumber, leadingZeros);
+    }
+
+    /**
+     * Get country calling code
+     *
+     * @param packed packed number
+     * @return int
+     */
+    public static int getCountryCode(long packed) {
+        return (int) (packed >>> COUNTRY_CODE_SHIFT);
+    }
+
+    /**
+     * Get national number, without its leading zeros
+     *
+     * @param packed packed number
+     * @return long
+     */
+    public static long getNationalNumber(long packed) {
+        return packed & NATIONAL_NUMBER_MASK;
+    }
+
+    /**
+     * Get leading zeros of the national significant number
+     *
+     * @param packed packed number
+     * @return 0 if none
+     */
+    public static int getNumberOfLeadingZeros(long packed) {
+        return (int) (packed >>> LEADING_ZEROS_SHIFT) & MAX_LEADING_ZEROS;
+    }
+
+    /**
+     * Unpack to a PhoneNumber, the reverse of {@link #pack(Phonenumber.PhoneNumber)}
+     *
+     * @param packed packed number
+     * @return PhoneNumber | null for {@link #NONE}
+     */
+    @Nullable
+    public static Phonenumber.PhoneNumber toPhoneNumber(long packed) {
+        if (packed == NONE) {
+            return null;
+        }
+        Phonenumber.PhoneNumber number = new Phonenumber.PhoneNumber()
+                .setCountryCode(getCountryCode(packed))
+                .setNationalNumber(getNationalNumber(packed));
+        int leadingZeros = getNumberOfLeadingZeros(packed);
+        if (leadingZeros > 0) {
+            number.setItalianLeadingZero(true);
+            if (leadingZeros > 1) {
+                number.setNumberOfLeadingZeros(leadingZeros);
+            }
+        }
+        return number;
+    }
+
+    /**
+     * Format in E.164, like {@link PhoneNumberUtil.PhoneNumberFormat#E164} but without libphonenumber
+     *
+     * @param packed packed number
+     * @return String | null for {@link #NONE}
+     */
+    @Nullable
+    public static String toE164(long packed) {
+        if (packed == NONE) {
+            return null;
+        }
+        return appendE164(new StringBuilder(MAX_DIGITS + 1), packed).toString();
+    }
+
+    /**
+     * Append the number in E.164
+     *
+     * @param builder StringBuilder
+     * @param packed  packed number, not {@link #NONE}
+     * @return builder
+     */
+    @NonNull
+    public static StringBuilder appendE164(@NonNull StringBuilder builder, long packed) {
+        builder.append('+').append(getCountryCode(packed));
+        for (int i = getNumberOfLeadingZeros(packed); i > 0; i--) {
+            builder.append('0');
+        }
+        return builder.append(getNationalNumber(packed));
+    }
+
+    private static int countDigits(long value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+}
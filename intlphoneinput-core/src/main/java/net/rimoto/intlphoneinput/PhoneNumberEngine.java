@@ -0,0 +1,152 @@
+package net.rimoto.intlphoneinput;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.Phonenumber;
+
+import java.util.Locale;
+
+/**
+ * Parse, validate and format engine of {@code IntlPhoneInput}, free of any Android dependency,
+ * so numbers can be handled on any JVM exactly the way the widget does. Thread-safe.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class PhoneNumberEngine {
+    @Nullable
+    private static PhoneNumberEngine sDefault;
+
+    @NonNull
+    private final PhoneNumberUtil mPhoneUtil;
+
+    /**
+     * Constructor
+     *
+     * @param phoneUtil PhoneNumberUtil
+     */
+    public PhoneNumberEngine(@NonNull PhoneNumberUtil phoneUtil) {
+        mPhoneUtil = phoneUtil;
+    }
+
+    /**
+     * Get default engine: the one set by {@link #setDefault(PhoneNumberEngine)},
+     * else one on the libphonenumber metadata of the jar
+     *
+     * @return PhoneNumberEngine
+     */
+    @NonNull
+    public static synchronized PhoneNumberEngine getDefault() {
+        if (sDefault == null) {
+            sDefault = new PhoneNumberEngine(PhoneNumberUtil.getInstance());
+        }
+        return sDefault;
+    }
+
+    /**
+     * Set default engine, i.e. one on metadata that is not in the jar (the Android library sets its
+     * trimmed metadata engine)
+     *
+     * @param engine PhoneNumberEngine
+     */
+    public static synchronized void setDefault(@NonNull PhoneNumberEngine engine) {
+        sDefault = engine;
+    }
+
+    /**
+     * Get underlying PhoneNumberUtil
+     *
+     * @return PhoneNumberUtil
+     */
+    @NonNull
+    public PhoneNumberUtil getPhoneUtil() {
+        return mPhoneUtil;
+    }
+
+    /**
+     * Parse text
+     *
+     * @param text   E.164 or national format
+     * @param region ISO2 of the default region (the selected country), null if none
+     * @return PhoneNumberState
+     */
+    @NonNull
+    public PhoneNumberState parse(@NonNull String text, @Nullable String region) {
+        return PhoneNumberState.parse(mPhoneUtil, text, normalizeRegion(region));
+    }
+
+    /**
+     * Parse text unless previous already is its parse result
+     *
+     * @param previous last state | null
+     * @param text     E.164 or national format
+     * @param region   ISO2 of the default region (the selected country), null if none
+     * @return previous | a new PhoneNumberState
+     */
+    @NonNull
+    public PhoneNumberState update(@Nullable PhoneNumberState previous, @NonNull String text, @Nullable String region) {
+        String normalizedRegion = normalizeRegion(region);
+        if (previous != null && previous.matches(text, normalizedRegion)) {
+            return previous;
+        }
+        return PhoneNumberState.parse(mPhoneUtil, text, normalizedRegion);
+    }
+
+    /**
+     * Find the country to switch to for a parsed number, by its dial code and area code
+     *
+     * @param state    PhoneNumberState
+     * @param selected currently selected country | null
+     * @return position in {@link Countries#COUNTRIES} | -1 to keep the selection
+     */
+    public int findCountry(@NonNull PhoneNumberState state, @Nullable Country selected) {
+        Phonenumber.PhoneNumber number = state.getPhoneNumber();
+        if (number == null) {
+            return -1;
+        }
+        return DialCodeTrie.getDefault().find(number.getCountryCode(), number.getNationalNumber(), indexOf(selected));
+    }
+
+    /**
+     * Find the country to switch to from the first digits of an international number, without parsing it
+     *
+     * @param text     phone text, looked up only if it starts with +
+     * @param selected currently selected country | null
+     * @return position in {@link Countries#COUNTRIES} | -1 to keep the selection
+     */
+    public int findCountry(@NonNull CharSequence text, @Nullable Country selected) {
+        return DialCodeTrie.getDefault().find(text, indexOf(selected));
+    }
+
+    /**
+     * Check if number is valid
+     *
+     * @param text   E.164 or national format
+     * @param region ISO2 of the default region, null if none
+     * @return boolean
+     */
+    public boolean isValid(@NonNull String text, @Nullable String region) {
+        return parse(text, region).isValid();
+    }
+
+    /**
+     * Get number in E.164 format
+     *
+     * @param text   E.164 or national format
+     * @param region ISO2 of the default region, null if none
+     * @return String | null on parse error
+     */
+    @Nullable
+    public String getNumber(@NonNull String text, @Nullable String region) {
+        return parse(text, region).getE164();
+    }
+
+    private static int indexOf(@Nullable Country country) {
+        return Countries.indexOf(country);
+    }
+
+    @NonNull
+    private static String normalizeRegion(@Nullable String region) {
+        return region != null ? region.toUpperCase(Locale.US) : "";
+    }
+}
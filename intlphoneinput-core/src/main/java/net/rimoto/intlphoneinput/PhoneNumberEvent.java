@@ -0,0 +1,131 @@
+package net.rimoto.intlphoneinput;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+
+/**
+ * Immutable snapshot of the phone number state, delivered by {@link PhoneNumberEventStream}
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class PhoneNumberEvent {
+    @NonNull
+    private final String mText;
+    @Nullable
+    private final String mE164;
+    @NonNull
+    private final String mRegion;
+    private final boolean mValid;
+    @NonNull
+    private final PhoneNumberUtil.PhoneNumberType mType;
+
+    /**
+     * Constructor
+     *
+     * @param text   raw phone text
+     * @param e164   number in E.164 format | null on parse error
+     * @param region ISO2 of the region the text was parsed for, empty if none
+     * @param valid  validity
+     * @param type   number type, UNKNOWN on parse error
+     */
+    public PhoneNumberEvent(@NonNull String text, @Nullable String e164, @NonNull String region, boolean valid,
+                            @NonNull PhoneNumberUtil.PhoneNumberType type) {
+        mText = text;
+        mE164 = e164;
+        mRegion = region;
+        mValid = valid;
+        mType = type;
+    }
+
+    /**
+     * Snapshot of a parsed state
+     *
+     * @param state PhoneNumberState
+     * @return PhoneNumberEvent
+     */
+    @NonNull
+    public static PhoneNumberEvent of(@NonNull PhoneNumberState state) {
+        return new PhoneNumberEvent(state.getText(), state.getE164(), state.getRegion(), state.isValid(), state.getType());
+    }
+
+    /**
+     * Get raw phone text
+     *
+     * @return String
+     */
+    @NonNull
+    public String getText() {
+        return mText;
+    }
+
+    /**
+     * Get number in E.164 format
+     *
+     * @return String | null on parse error
+     */
+    @Nullable
+    public String getE164() {
+        return mE164;
+    }
+
+    /**
+     * Get region the text was parsed for (the selected country)
+     *
+     * @return ISO2, empty if none
+     */
+    @NonNull
+    public String getRegion() {
+        return mRegion;
+    }
+
+    /**
+     * Check if number is valid
+     *
+     * @return boolean
+     */
+    public boolean isValid() {
+        return mValid;
+    }
+
+    /**
+     * Get type of the number
+     *
+     * @return PhoneNumberType, UNKNOWN on parse error
+     */
+    @NonNull
+    public PhoneNumberUtil.PhoneNumberType getType() {
+        return mType;
+    }
+
+    /**
+     * Check if other describes the same number, whatever its formatting
+     *
+     * @param other PhoneNumberEvent | null
+     * @return true if E.164, region, validity and type are equal
+     */
+    public boolean isSameNumber(@Nullable PhoneNumberEvent other) {
+        return other != null && mValid == other.mValid && mType == other.mType && mRegion.equals(other.mRegion)
+                && (mE164 != null ? mE164.equals(other.mE164) : other.mE164 == null);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PhoneNumberEvent && isSameNumber((PhoneNumberEvent) o) && mText.equals(((PhoneNumberEvent) o).mText);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = mText.hashCode();
+        result = 31 * result + (mE164 != null ? mE164.hashCode() : 0);
+        result = 31 * result + mRegion.hashCode();
+        result = 31 * result + (mValid ? 1 : 0);
+        return 31 * result + mType.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "PhoneNumberEvent{text=" + mText + ", e164=" + mE164 + ", region=" + mRegion
+                + ", valid=" + mValid + ", type=" + mType + "}";
+    }
+}
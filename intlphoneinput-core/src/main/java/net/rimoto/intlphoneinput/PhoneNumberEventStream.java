@@ -0,0 +1,193 @@
+package net.rimoto.intlphoneinput;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Coalesces the number states of a burst of edits into one delivery.
+ * Each offered event restarts the debounce; once it expires the listener gets the latest event,
+ * or with batching every event of the burst. Distinct-until-changed drops events describing the same number
+ * as the previous one, whatever the formatting of the text.
+ * <p>
+ * Not thread-safe: offer, flush and the scheduled deliveries must run on the same thread.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class PhoneNumberEventStream {
+    /**
+     * Default quiet period before a delivery, in milliseconds
+     */
+    public static final long DEFAULT_DEBOUNCE = 300;
+    /**
+     * Default number of batched events that triggers a delivery without waiting for the debounce
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 32;
+
+    /**
+     * Receives the coalesced events
+     */
+    public interface Listener {
+        /**
+         * Called once per burst of edits
+         *
+         * @param events the latest event, or every event of the burst in order with batching; never empty
+         */
+        void onPhoneNumberEvents(@NonNull List<PhoneNumberEvent> events);
+    }
+
+    /**
+     * Runs the delayed delivery, e.g. on a Handler
+     */
+    public interface Scheduler {
+        void schedule(@NonNull Runnable runnable, long delay);
+
+        void cancel(@NonNull Runnable runnable);
+    }
+
+    @NonNull
+    private final Listener mListener;
+    @NonNull
+    private final Scheduler mScheduler;
+    private long mDebounce = DEFAULT_DEBOUNCE;
+    private boolean mDistinctUntilChanged = true;
+    private boolean mBatching;
+    private int mMaxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+    /**
+     * Events of the current burst, only the latest one without batching
+     */
+    @NonNull
+    private final List<PhoneNumberEvent> mPending = new ArrayList<>();
+    /**
+     * Last accepted event, to drop unchanged ones
+     */
+    @Nullable
+    private PhoneNumberEvent mLast;
+    @Nullable
+    private PhoneNumberEvent mLastDelivered;
+    private boolean mScheduled;
+
+    @NonNull
+    private final Runnable mDelivery = new Runnable() {
+        @Override
+        public void run() {
+            mScheduled = false;
+            deliver();
+        }
+    };
+
+    /**
+     * Constructor
+     *
+     * @param listener  Listener
+     * @param scheduler Scheduler of the deliveries
+     */
+    public PhoneNumberEventStream(@NonNull Listener listener, @NonNull Scheduler scheduler) {
+        mListener = listener;
+        mScheduler = scheduler;
+    }
+
+    /**
+     * Set quiet period before a delivery
+     *
+     * @param debounce milliseconds, 0 to deliver every accepted event right away
+     */
+    public void setDebounce(long debounce) {
+        mDebounce = debounce;
+    }
+
+    /**
+     * Drop events describing the same number as the previous one (enabled by default)
+     *
+     * @param distinctUntilChanged boolean
+     */
+    public void setDistinctUntilChanged(boolean distinctUntilChanged) {
+        mDistinctUntilChanged = distinctUntilChanged;
+    }
+
+    /**
+     * Deliver every event of a burst instead of the latest one
+     *
+     * @param batching boolean
+     */
+    public void setBatching(boolean batching) {
+        mBatching = batching;
+    }
+
+    /**
+     * Set number of batched events that triggers a delivery without waiting for the debounce
+     *
+     * @param maxBatchSize int, at least 1
+     */
+    public void setMaxBatchSize(int maxBatchSize) {
+        mMaxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    /**
+     * Offer the state after an edit
+     *
+     * @param event PhoneNumberEvent
+     */
+    public void offer(@NonNull PhoneNumberEvent event) {
+        if (mDistinctUntilChanged && event.isSameNumber(mLast)) {
+            return;
+        }
+        mLast = event;
+        if (!mBatching) {
+            mPending.clear();
+        }
+        mPending.add(event);
+
+        if (mDebounce <= 0 || (mBatching && mPending.size() >= mMaxBatchSize)) {
+            flush();
+            return;
+        }
+        if (mScheduled) {
+            mScheduler.cancel(mDelivery);
+        }
+        mScheduled = true;
+        mScheduler.schedule(mDelivery, mDebounce);
+    }
+
+    /**
+     * Deliver the pending events now
+     */
+    public void flush() {
+        if (mScheduled) {
+            mScheduler.cancel(mDelivery);
+            mScheduled = false;
+        }
+        deliver();
+    }
+
+    /**
+     * Drop the pending events, e.g. on unsubscribe
+     */
+    public void cancel() {
+        if (mScheduled) {
+            mScheduler.cancel(mDelivery);
+            mScheduled = false;
+        }
+        mPending.clear();
+        mLast = mLastDelivered;
+    }
+
+    private void deliver() {
+        if (mPending.isEmpty()) {
+            return;
+        }
+        PhoneNumberEvent latest = mPending.get(mPending.size() - 1);
+        if (!mBatching && mDistinctUntilChanged && latest.isSameNumber(mLastDelivered)) {
+            // The burst came back to the delivered number
+            mPending.clear();
+            return;
+        }
+        List<PhoneNumberEvent> events = Collections.unmodifiableList(new ArrayList<>(mPending));
+        mPending.clear();
+        mLastDelivered = latest;
+        mListener.onPhoneNumberEvents(events);
+    }
+}
@@ -0,0 +1,192 @@
+package net.rimoto.intlphoneinput;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.google.i18n.phonenumbers.AsYouTypeFormatter;
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Formats phone text as it is typed, on libphonenumber's AsYouTypeFormatter.
+ * Only the dialable characters added after the previously formatted ones are fed to the formatter;
+ * other edits replay the text. Switching region reuses the formatter of each region.
+ * Not thread-safe.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class PhoneNumberFormatter {
+    @NonNull
+    private final PhoneNumberUtil mPhoneUtil;
+    @NonNull
+    private final Map<String, AsYouTypeFormatter> mFormatters = new HashMap<>();
+    @NonNull
+    private String mRegion = "";
+    @NonNull
+    private AsYouTypeFormatter mFormatter;
+
+    /**
+     * Dialable characters fed to mFormatter
+     */
+    @NonNull
+    private final StringBuilder mFed = new StringBuilder();
+    /**
+     * Dialable characters of the text being formatted
+     */
+    @NonNull
+    private final StringBuilder mInput = new StringBuilder();
+    @NonNull
+    private String mFormatted = "";
+    private int mCursor;
+
+    /**
+     * Constructor
+     *
+     * @param phoneUtil PhoneNumberUtil
+     * @param region    ISO2 of the default region, null if none
+     */
+    public PhoneNumberFormatter(@NonNull PhoneNumberUtil phoneUtil, @Nullable String region) {
+        mPhoneUtil = phoneUtil;
+        mRegion = normalizeRegion(region);
+        mFormatter = getFormatter(mRegion);
+    }
+
+    /**
+     * Switch region; the next text is formatted from scratch
+     *
+     * @param region ISO2 of the default region, null if none
+     */
+    public void setRegion(@Nullable String region) {
+        String normalized = normalizeRegion(region);
+        if (!normalized.equals(mRegion)) {
+            mRegion = normalized;
+            mFormatter = getFormatter(normalized);
+            clear();
+        }
+    }
+
+    /**
+     * Get region
+     *
+     * @return ISO2, empty if none
+     */
+    @NonNull
+    public String getRegion() {
+        return mRegion;
+    }
+
+    /**
+     * Forget the formatted text
+     */
+    public void clear() {
+        mFormatter.clear();
+        mFed.setLength(0);
+        mFormatted = "";
+    }
+
+    /**
+     * Format text. Text with characters other than dialable ones and separators is left as is.
+     *
+     * @param text   phone text
+     * @param cursor cursor position in text
+     * @return formatted text, see {@link #getCursor()} for the cursor position in it
+     */
+    @NonNull
+    public String format(@NonNull CharSequence text, int cursor) {
+        mInput.setLength(0);
+        int dialableBeforeCursor = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isDialable(c)) {
+                mInput.append(c);
+                if (i < cursor) {
+                    dialableBeforeCursor++;
+                }
+            } else if (!isSeparator(c)) {
+                clear();
+                mCursor = cursor;
+                return text.toString();
+            }
+        }
+
+        if (!startsWith(mInput, mFed)) {
+            clear();
+        }
+        for (int i = mFed.length(); i < mInput.length(); i++) {
+            char c = mInput.charAt(i);
+            mFormatted = mFormatter.inputDigit(c);
+            mFed.append(c);
+        }
+        mCursor = findCursor(mFormatted, dialableBeforeCursor);
+        return mFormatted;
+    }
+
+    /**
+     * Get cursor position in the last formatted text
+     *
+     * @return int
+     */
+    public int getCursor() {
+        return mCursor;
+    }
+
+    /**
+     * Position after the given number of dialable characters
+     */
+    private static int findCursor(@NonNull String formatted, int dialable) {
+        if (dialable == 0) {
+            return 0;
+        }
+        int count = 0;
+        for (int i = 0; i < formatted.length(); i++) {
+            if (isDialable(formatted.charAt(i)) && ++count == dialable) {
+                return i + 1;
+            }
+        }
+        return formatted.length();
+    }
+
+    private static boolean startsWith(@NonNull CharSequence text, @NonNull CharSequence prefix) {
+        if (prefix.length() > text.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (text.charAt(i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Digits, + and the keypad * and #
+     */
+    private static boolean isDialable(char c) {
+        return Character.isDigit(c) || c == '+' || c == '*' || c == '#';
+    }
+
+    /**
+     * Characters AsYouTypeFormatter and users put between digits
+     */
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '-' || c == '(' || c == ')' || c == '.' || c == '/'
+                || c == '\u00A0' || (c >= '\u2010' && c <= '\u2015');
+    }
+
+    @NonNull
+    private AsYouTypeFormatter getFormatter(@NonNull String region) {
+        AsYouTypeFormatter formatter = mFormatters.get(region);
+        if (formatter == null) {
+            formatter = mPhoneUtil.getAsYouTypeFormatter(region);
+            mFormatters.put(region, formatter);
+        }
+        return formatter;
+    }
+
+    @NonNull
+    private static String normalizeRegion(@Nullable String region) {
+        return region != null ? region.toUpperCase(Locale.US) : "";
+    }
+}
@@ -0,0 +1,240 @@
+package net.rimoto.intlphoneinput;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.google.i18n.phonenumbers.NumberParseException;
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.Phonenumber;
+
+/**
+ * Immutable result of parsing the phone text for a region.
+ * The text is parsed once; validity and E.164 are computed on first use and kept.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class PhoneNumberState {
+    @NonNull
+    private final PhoneNumberUtil mPhoneUtil;
+    @NonNull
+    private final String mText;
+    @NonNull
+    private final String mRegion;
+    @Nullable
+    private final Phonenumber.PhoneNumber mPhoneNumber;
+
+    /**
+     * Validity: null until computed
+     */
+    @Nullable
+    private volatile Boolean mValid;
+    @Nullable
+    private volatile String mE164;
+    @Nullable
+    private volatile String mNational;
+    @Nullable
+    private volatile PhoneNumberUtil.PhoneNumberType mType;
+
+    private PhoneNumberState(@NonNull PhoneNumberUtil phoneUtil, @NonNull String text, @NonNull String region,
+                             @Nullable Phonenumber.PhoneNumber phoneNumber) {
+        mPhoneUtil = phoneUtil;
+        mText = text;
+        mRegion = region;
+        mPhoneNumber = phoneNumber;
+    }
+
+    /**
+     * Parse text, see {@link PhoneNumberEngine#parse(String, String)}
+     *
+     * @param phoneUtil PhoneNumberUtil
+     * @param text      phone text, E.164 or national format
+     * @param region    ISO2 of the default region, empty if none
+     * @return PhoneNumberState
+     */
+    @NonNull
+    public static PhoneNumberState parse(@NonNull PhoneNumberUtil phoneUtil, @NonNull String text, @NonNull String region) {
+        Phonenumber.PhoneNumber phoneNumber;
+        try {
+            phoneNumber = phoneUtil.parseAndKeepRawInput(text, region);
+        } catch (NumberParseException ignored) {
+            phoneNumber = null;
+        }
+        return new PhoneNumberState(phoneUtil, text, region, phoneNumber);
+    }
+
+    /**
+     * Restore a state saved from {@link #getPhoneNumber()} and {@link #isValid()} without parsing the text again.
+     * The caller guarantees that text parsed to phoneNumber for region.
+     *
+     * @param phoneUtil   PhoneNumberUtil
+     * @param text        phone text
+     * @param region      ISO2 of the default region, empty if none
+     * @param phoneNumber parsed number | null on parse error
+     * @param valid       validity of phoneNumber
+     * @return PhoneNumberState
+     */
+    @NonNull
+    public static PhoneNumberState restore(@NonNull PhoneNumberUtil phoneUtil, @NonNull String text, @NonNull String region,
+                                           @Nullable Phonenumber.PhoneNumber phoneNumber, boolean valid) {
+        PhoneNumberState state = new PhoneNumberState(phoneUtil, text, region, phoneNumber);
+        state.mValid = phoneNumber != null && valid;
+        return state;
+    }
+
+    /**
+     * Get state of another text of the same number, i.e. its formatted form, without parsing it.
+     * The caller guarantees that text parses to this number for region.
+     *
+     * @param text   phone text
+     * @param region ISO2 of the default region, empty if none
+     * @return PhoneNumberState
+     */
+    @NonNull
+    public PhoneNumberState withText(@NonNull String text, @NonNull String region) {
+        PhoneNumberState state = new PhoneNumberState(mPhoneUtil, text, region, mPhoneNumber);
+        state.mValid = mValid;
+        state.mE164 = mE164;
+        state.mNational = mNational;
+        state.mType = mType;
+        return state;
+    }
+
+    /**
+     * Check if this state is the parse result of text for region.
+     * A number typed with a + prefix does not depend on the region.
+     *
+     * @param text   phone text
+     * @param region ISO2 of the default region
+     * @return boolean
+     */
+    public boolean matches(@NonNull String text, @NonNull String region) {
+        return mText.equals(text) && (mRegion.equals(region) || (mPhoneNumber != null
+                && mPhoneNumber.getCountryCodeSource() == Phonenumber.PhoneNumber.CountryCodeSource.FROM_NUMBER_WITH_PLUS_SIGN));
+    }
+
+    /**
+     * Get parsed text
+     *
+     * @return String
+     */
+    @NonNull
+    public String getText() {
+        return mText;
+    }
+
+    /**
+     * Get default region the text was parsed for
+     *
+     * @return ISO2, empty if none
+     */
+    @NonNull
+    public String getRegion() {
+        return mRegion;
+    }
+
+    /**
+     * Get dial code of the parsed number
+     *
+     * @return int | 0 on parse error
+     */
+    public int getCountryCode() {
+        return mPhoneNumber != null ? mPhoneNumber.getCountryCode() : 0;
+    }
+
+    /**
+     * Get a copy of the parsed number
+     *
+     * @return PhoneNumber | null on parse error
+     */
+    @Nullable
+    public Phonenumber.PhoneNumber getPhoneNumber() {
+        return mPhoneNumber != null ? new Phonenumber.PhoneNumber().mergeFrom(mPhoneNumber) : null;
+    }
+
+    /**
+     * Check if number is valid
+     *
+     * @return boolean
+     */
+    public boolean isValid() {
+        Boolean valid = mValid;
+        if (valid == null) {
+            valid = mPhoneNumber != null && PhoneNumberValidator.getDefault().isValidNumber(mPhoneUtil, mPhoneNumber);
+            mValid = valid;
+        }
+        return valid;
+    }
+
+    /**
+     * Get number in E.164 format
+     *
+     * @return String | null on parse error
+     */
+    @Nullable
+    public String getE164() {
+        if (mPhoneNumber == null) {
+            return null;
+        }
+        String e164 = mE164;
+        if (e164 == null) {
+            e164 = mPhoneUtil.format(mPhoneNumber, PhoneNumberUtil.PhoneNumberFormat.E164);
+            mE164 = e164;
+        }
+        return e164;
+    }
+
+    /**
+     * Get number in national format
+     *
+     * @return String | null on parse error
+     */
+    @Nullable
+    public String getNational() {
+        if (mPhoneNumber == null) {
+            return null;
+        }
+        String national = mNational;
+        if (national == null) {
+            national = mPhoneUtil.format(mPhoneNumber, PhoneNumberUtil.PhoneNumberFormat.NATIONAL);
+            mNational = national;
+        }
+        return national;
+    }
+
+    /**
+     * Get text showing the number with region selected: the national format if it parses back to this number
+     * for region, i.e. region has the dial code of the number, E.164 otherwise,
+     * i.e. when the country of the number is not in the country list
+     *
+     * @param region ISO2 of the selected country
+     * @return String | null on parse error
+     */
+    @Nullable
+    public String getDisplayText(@NonNull String region) {
+        if (mPhoneNumber == null) {
+            return null;
+        }
+        // Any region of the dial code, the region of the number included, parses its national format back to it
+        if (!region.isEmpty() && mPhoneUtil.getCountryCodeForRegion(region) == mPhoneNumber.getCountryCode()) {
+            return getNational();
+        }
+        return getE164();
+    }
+
+    /**
+     * Get type of the number (mobile, fixed line...)
+     *
+     * @return PhoneNumberType, UNKNOWN on parse error
+     */
+    @NonNull
+    public PhoneNumberUtil.PhoneNumberType getType() {
+        if (mPhoneNumber == null) {
+            return PhoneNumberUtil.PhoneNumberType.UNKNOWN;
+        }
+        PhoneNumberUtil.PhoneNumberType type = mType;
+        if (type == null) {
+            type = mPhoneUtil.getNumberType(mPhoneNumber);
+            mType = type;
+        }
+        return type;
+    }
+}
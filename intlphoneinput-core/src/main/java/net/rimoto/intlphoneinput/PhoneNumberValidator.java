@@ -0,0 +1,183 @@
+package net.rimoto.intlphoneinput;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.Phonenumber;
+
+import java.util.Arrays;
+
+/**
+ * Fast path of {@link PhoneNumberUtil#isValidNumber}: the validation patterns of the regions compiled at build time
+ * ({@code -Pintlphoneinput.validationRegions=US,GB}) are digit automata, so validating a number of these regions
+ * is one table walk over its digits instead of several regular expression matches.
+ * Numbers of the other calling codes are validated by libphonenumber.
+ * <p>
+ * The automata follow the metadata of the libphonenumber the library is built with; an app resolving another
+ * libphonenumber version should leave the validation regions empty. Immutable, thread-safe and does not allocate.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class PhoneNumberValidator {
+    private static final int RADIX = 10;
+    /**
+     * Chars per state: accepting flag, then the next state per digit
+     */
+    private static final int ROW = RADIX + 1;
+    private static final int START = 1;
+    private static final int MAX_COUNTRY_CODE = 999;
+
+    @Nullable
+    private static PhoneNumberValidator sDefault;
+
+    /**
+     * Group of each calling code, -1 if not compiled
+     */
+    @NonNull
+    private final int[] mGroups = new int[MAX_COUNTRY_CODE + 1];
+    @NonNull
+    private final int[] mGroupStarts;
+    @NonNull
+    private final String[] mRegions;
+    @NonNull
+    private final char[][] mValid;
+    @NonNull
+    private final char[][] mLeadingDigits;
+
+    /**
+     * Constructor
+     *
+     * @param countryCodes  compiled calling codes
+     * @param groupStarts   first region of each calling code, plus the region count
+     * @param regions       regions of each calling code in libphonenumber order
+     * @param valid         validity automaton of each region, in chunks
+     * @param leadingDigits leading digits automaton of each region, null if none
+     */
+    PhoneNumberValidator(@NonNull int[] countryCodes, @NonNull int[] groupStarts, @NonNull String[] regions,
+                         @NonNull String[][] valid, @NonNull String[][] leadingDigits) {
+        Arrays.fill(mGroups, -1);
+        for (int group = 0; group < countryCodes.length; group++) {
+            mGroups[countryCodes[group]] = group;
+        }
+        mGroupStarts = groupStarts;
+        mRegions = regions;
+        mValid = new char[valid.length][];
+        mLeadingDigits = new char[leadingDigits.length][];
+        for (int i = 0; i < regions.length; i++) {
+            mValid[i] = join(valid[i]);
+            mLeadingDigits[i] = leadingDigits[i] != null ? join(leadingDigits[i]) : null;
+        }
+    }
+
+    /**
+     * Get validator of the regions compiled into the library
+     *
+     * @return PhoneNumberValidator
+     */
+    @NonNull
+    public static synchronized PhoneNumberValidator getDefault() {
+        if (sDefault == null) {
+            sDefault = new PhoneNumberValidator(ValidationTable.COUNTRY_CODES, ValidationTable.GROUP_STARTS,
+                    ValidationTable.REGIONS, ValidationTable.VALID, ValidationTable.LEADING_DIGITS);
+        }
+        return sDefault;
+    }
+
+    /**
+     * Check if numbers of a calling code take the fast path
+     *
+     * @param countryCode calling code
+     * @return boolean
+     */
+    public boolean isCompiled(int countryCode) {
+        return countryCode > 0 && countryCode <= MAX_COUNTRY_CODE && mGroups[countryCode] >= 0;
+    }
+
+    /**
+     * Get compiled regions
+     *
+     * @return ISO2 of the regions, grouped by calling code
+     */
+    @NonNull
+    public String[] getRegions() {
+        return mRegions.clone();
+    }
+
+    /**
+     * Check if number is valid, like {@link PhoneNumberUtil#isValidNumber}
+     *
+     * @param phoneUtil PhoneNumberUtil validating the numbers of the other calling codes
+     * @param number    PhoneNumber
+     * @return boolean
+     */
+    public boolean isValidNumber(@NonNull PhoneNumberUtil phoneUtil, @NonNull Phonenumber.PhoneNumber number) {
+        int countryCode = number.getCountryCode();
+        if (!isCompiled(countryCode)) {
+            return phoneUtil.isValidNumber(number);
+        }
+        int group = mGroups[countryCode];
+        int start = mGroupStarts[group];
+        int end = mGroupStarts[group + 1];
+        int leadingZeros = number.isItalianLeadingZero() ? number.getNumberOfLeadingZeros() : 0;
+        long nationalNumber = number.getNationalNumber();
+
+        if (end - start == 1) {
+            // The only region of a calling code is the region of its numbers
+            return accepts(mValid[start], leadingZeros, nationalNumber);
+        }
+        // Otherwise the region of the number (getRegionCodeForNumber) is the first whose leading digits match it,
+        // or without leading digits the first where it is valid
+        for (int region = start; region < end; region++) {
+            char[] leadingDigits = mLeadingDigits[region];
+            if (leadingDigits != null) {
+                if (accepts(leadingDigits, leadingZeros, nationalNumber)) {
+                    return accepts(mValid[region], leadingZeros, nationalNumber);
+                }
+            } else if (accepts(mValid[region], leadingZeros, nationalNumber)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Walk the national significant number: the leading zeros, then the digits of the national number
+     */
+    private static boolean accepts(@NonNull char[] automaton, int leadingZeros, long nationalNumber) {
+        int state = START;
+        for (int i = 0; i < leadingZeros; i++) {
+            state = automaton[state * ROW + 1];
+            if (state == 0) {
+                return false;
+            }
+        }
+        // Reverse the digits, so they are read from the most significant one by constant divisions
+        long reversed = 0;
+        int digits = 0;
+        do {
+            reversed = reversed * RADIX + nationalNumber % RADIX;
+            nationalNumber /= RADIX;
+            digits++;
+        } while (nationalNumber > 0);
+        for (; digits > 0; digits--) {
+            state = automaton[state * ROW + 1 + (int) (reversed % RADIX)];
+            if (state == 0) {
+                return false;
+            }
+            reversed /= RADIX;
+        }
+        return automaton[state * ROW] != 0;
+    }
+
+    @NonNull
+    private static char[] join(@NonNull String[] chunks) {
+        if (chunks.length == 1) {
+            return chunks[0].toCharArray();
+        }
+        StringBuilder builder = new StringBuilder();
+        for (String chunk : chunks) {
+            builder.append(chunk);
+        }
+        return builder.toString().toCharArray();
+    }
+}
@@ -0,0 +1,115 @@
+package net.rimoto.intlphoneinput;
+
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.Phonenumber;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Bulk normalization on one thread against one thread per core, with identical ordered results
+ */
+public class BulkNormalizerTest {
+    private static final int SIZE = 50000;
+
+    @Test
+    public void parallelMatchesSequentialInOrder() {
+        List<String> numbers = createNumbers();
+        PhoneNumberEngine engine = PhoneNumberEngine.getDefault();
+        BulkNormalizer sequential = new BulkNormalizer(engine, new ForkJoinPool(1), BulkNormalizer.DEFAULT_CHUNK_SIZE);
+        BulkNormalizer parallel = new BulkNormalizer(engine);
+
+        Collector expected = run(sequential, numbers);
+        Collector actual = run(parallel, numbers);
+
+        assertEquals(SIZE, actual.mE164.size());
+        assertEquals(expected.mE164, actual.mE164);
+        assertEquals(expected.mErrors, actual.mErrors);
+        assertTrue(actual.mInOrder);
+    }
+
+    @Test
+    public void reportsErrors() {
+        List<String> numbers = new ArrayList<>();
+        numbers.add("+44 20 7031 3000");
+        numbers.add("not a number");
+        numbers.add("+44 20");
+        numbers.add("+999 1234567");
+        Collector collector = run(new BulkNormalizer(PhoneNumberEngine.getDefault()), numbers);
+
+        assertEquals("+442070313000", collector.mE164.get(0));
+        assertEquals(BulkNormalizer.ERROR_NONE, (int) collector.mErrors.get(0));
+        assertEquals(null, collector.mE164.get(1));
+        assertEquals(BulkNormalizer.ERROR_NOT_A_NUMBER, (int) collector.mErrors.get(1));
+        assertEquals(BulkNormalizer.ERROR_INVALID_NUMBER, (int) collector.mErrors.get(2));
+        assertEquals(BulkNormalizer.ERROR_INVALID_COUNTRY_CODE, (int) collector.mErrors.get(3));
+    }
+
+    @Test
+    public void packedMatchesE164() {
+        List<String> numbers = createNumbers().subList(0, 5000);
+        BulkNormalizer normalizer = new BulkNormalizer(PhoneNumberEngine.getDefault());
+        final Collector expected = run(normalizer, numbers);
+        final LongHashSet distinct = new LongHashSet();
+        normalizer.normalizePacked(numbers, "US", new BulkNormalizer.PackedListener() {
+            @Override
+            public void onNumber(int index, CharSequence raw, long packed, int error) {
+                assertEquals(expected.mE164.get(index), PackedPhoneNumber.toE164(packed));
+                assertEquals((int) expected.mErrors.get(index), error);
+                if (packed != PackedPhoneNumber.NONE) {
+                    distinct.add(packed);
+                }
+            }
+        });
+        assertTrue(distinct.size() > 100);
+    }
+
+    private static Collector run(BulkNormalizer normalizer, List<String> numbers) {
+        Collector collector = new Collector();
+        normalizer.normalize(numbers, "US", collector);
+        return collector;
+    }
+
+    /**
+     * Example numbers of every region, international and national, plus some garbage
+     */
+    private static List<String> createNumbers() {
+        PhoneNumberUtil phoneUtil = PhoneNumberUtil.getInstance();
+        List<String> samples = new ArrayList<>();
+        for (String region : phoneUtil.getSupportedRegions()) {
+            Phonenumber.PhoneNumber example = phoneUtil.getExampleNumber(region);
+            if (example != null) {
+                samples.add(phoneUtil.format(example, PhoneNumberUtil.PhoneNumberFormat.INTERNATIONAL));
+                samples.add(phoneUtil.format(example, PhoneNumberUtil.PhoneNumberFormat.NATIONAL));
+            }
+        }
+        samples.add("(650) 253-0000");
+        samples.add("12");
+        samples.add("call me");
+
+        List<String> numbers = new ArrayList<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            numbers.add(samples.get(i % samples.size()));
+        }
+        return numbers;
+    }
+
+    private static final class Collector implements BulkNormalizer.Listener {
+        final List<String> mE164 = new ArrayList<>();
+        final List<Integer> mErrors = new ArrayList<>();
+        boolean mInOrder = true;
+
+        @Override
+        public void onNumber(int index, CharSequence raw, String e164, int error) {
+            mInOrder &= index == mE164.size();
+            mE164.add(e164);
+            mErrors.add(error);
+        }
+    }
+}
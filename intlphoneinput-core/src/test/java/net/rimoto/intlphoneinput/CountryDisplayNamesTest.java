@@ -0,0 +1,37 @@
+package net.rimoto.intlphoneinput;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class CountryDisplayNamesTest {
+    private final Locale mLocale = CountryDisplayNames.getLocale();
+
+    @After
+    public void tearDown() {
+        CountryDisplayNames.setLocale(mLocale);
+    }
+
+    @Test
+    public void namesAreResolvedOnce() {
+        Country country = Countries.COUNTRIES.get(0);
+        String name = country.getDisplayName(Locale.US);
+        assertEquals(new Locale("", country.getIso()).getDisplayCountry(Locale.US), name);
+        assertSame(name, country.getDisplayName(Locale.US));
+    }
+
+    @Test
+    public void followsDisplayLocale() {
+        Country germany = new Country("Germany (Deutschland)", "de", 49);
+        CountryDisplayNames.setLocale(Locale.GERMAN);
+        assertEquals(Locale.GERMAN, CountryDisplayNames.getLocale());
+        assertEquals(germany.getDisplayName(Locale.GERMAN), germany.getDisplayName());
+
+        CountryDisplayNames.setLocale(Locale.US);
+        assertEquals(germany.getDisplayName(Locale.US), germany.getDisplayName());
+    }
+}
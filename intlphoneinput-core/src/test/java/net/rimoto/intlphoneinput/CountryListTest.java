@@ -0,0 +1,125 @@
+package net.rimoto.intlphoneinput;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Subsets and orders over the shared registry
+ */
+public class CountryListTest {
+
+    @Test
+    public void registryIsImmutable() {
+        Country country = Countries.COUNTRIES.get(0);
+        assertSame(country, CountryList.all().get(0));
+        assertEquals(0, Countries.indexOf(country));
+        try {
+            Countries.COUNTRIES.set(0, new Country("Nowhere", "zz", 999));
+            throw new AssertionError("COUNTRIES is modifiable");
+        } catch (UnsupportedOperationException expected) {
+            // Shared by every instance
+        }
+        try {
+            //noinspection deprecation
+            country.setDialCode(999);
+            throw new AssertionError("Registry country is modifiable");
+        } catch (UnsupportedOperationException expected) {
+            // Shared by every instance
+        }
+
+        Country free = new Country("Nowhere", "zz", 999);
+        //noinspection deprecation
+        free.setDialCode(998);
+        assertEquals(998, free.getDialCode());
+        assertEquals(-1, Countries.indexOf(free));
+    }
+
+    @Test
+    public void subsetAndOrder() {
+        int gb = Countries.indexOfIso("GB");
+        int fr = Countries.indexOfIso("FR");
+        int de = Countries.indexOfIso("DE");
+        if (gb < 0 || fr < 0 || de < 0) {
+            // Trimmed build
+            return;
+        }
+        CountryList all = CountryList.all();
+        assertEquals(Countries.COUNTRIES.size(), all.size());
+        assertEquals(Countries.COUNTRIES, all);
+
+        CountryList only = all.only(Arrays.asList("gb", "FR", "de", "unknown"));
+        assertEquals(3, only.size());
+        // Registry order: France, Germany, United Kingdom
+        assertEquals("FR", only.get(0).getIso());
+        assertEquals("DE", only.get(1).getIso());
+        assertEquals("GB", only.get(2).getIso());
+        assertEquals(2, only.indexOfIso("gb"));
+        assertEquals(2, only.indexOf(new Country("United Kingdom", "gb", 44)));
+        assertEquals(-1, only.indexOfIso("US"));
+        assertEquals(gb, only.getTablePosition(2));
+        assertEquals(1, only.indexOfTablePosition(de));
+        assertFalse(only.contains(Countries.COUNTRIES.get(Math.max(0, Countries.indexOfIso("US")))));
+
+        CountryList preferred = only.preferring(Arrays.asList("GB", "US", "gb"));
+        assertEquals(3, preferred.size());
+        assertEquals("GB", preferred.get(0).getIso());
+        assertEquals("FR", preferred.get(1).getIso());
+        assertEquals("DE", preferred.get(2).getIso());
+        assertSame(only.get(2), preferred.get(0));
+
+        CountryList byDialCode = only.sorted(new Comparator<Country>() {
+            @Override
+            public int compare(Country a, Country b) {
+                return a.getDialCode() - b.getDialCode();
+            }
+        });
+        assertEquals("FR", byDialCode.get(0).getIso());
+        assertEquals("GB", byDialCode.get(1).getIso());
+        assertEquals("DE", byDialCode.get(2).getIso());
+
+        assertEquals(only, all.only(Arrays.asList("DE", "GB", "FR")));
+        assertEquals(only.hashCode(), all.only(Arrays.asList("DE", "GB", "FR")).hashCode());
+        assertFalse(only.equals(preferred));
+        assertTrue(all.only(Collections.<String>emptyList()).isEmpty());
+    }
+
+    @Test
+    public void numberOfCountryOutsideList() {
+        int il = Countries.indexOfIso("IL");
+        int us = Countries.indexOfIso("US");
+        if (il < 0 || us < 0 || Countries.indexOfIso("GB") < 0) {
+            // Trimmed build
+            return;
+        }
+        CountryList only = CountryList.all().only(Arrays.asList("IL", "GB"));
+        Country selected = Countries.COUNTRIES.get(il);
+        PhoneNumberEngine engine = PhoneNumberEngine.getDefault();
+
+        // The selection stays on Israel, the national format would parse to an Israeli number
+        PhoneNumberState state = engine.parse("+16502530000", "IL");
+        assertEquals(us, engine.findCountry(state, selected));
+        assertEquals(-1, only.indexOfTablePosition(engine.findCountry(state, selected)));
+        String text = state.getDisplayText("IL");
+        assertEquals("+16502530000", text);
+        assertEquals("+16502530000", engine.parse(text, "IL").getE164());
+        assertFalse("+16502530000".equals(engine.parse(state.getNational(), "IL").getE164()));
+
+        // A number of a listed country, or of another country of its dial code, is shown in national format
+        PhoneNumberState british = engine.parse("+442079460000", "IL");
+        assertEquals(british.getNational(), british.getDisplayText("GB"));
+        assertEquals("+442079460000", engine.parse(british.getDisplayText("GB"), "GB").getE164());
+        PhoneNumberState canadian = engine.parse("+16135550123", "US");
+        assertEquals(canadian.getNational(), canadian.getDisplayText("US"));
+        assertEquals("+16135550123", engine.parse(canadian.getDisplayText("US"), "US").getE164());
+        assertNull(engine.parse("call me", "IL").getDisplayText("IL"));
+    }
+}
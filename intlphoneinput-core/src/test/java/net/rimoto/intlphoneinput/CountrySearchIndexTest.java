@@ -0,0 +1,74 @@
+package net.rimoto.intlphoneinput;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class CountrySearchIndexTest {
+    private final List<Country> mCountries = Arrays.asList(
+            new Country("Albania (Shqipëri)", "al", 355),
+            new Country("Israel (‫ישראל‬‎)", "il", 972),
+            new Country("São Tomé and Príncipe (São Tomé e Príncipe)", "st", 239),
+            new Country("United Kingdom", "gb", 44),
+            new Country("United States", "us", 1, 0),
+            new Country("Canada", "ca", 1, 1));
+    private final CountrySearchIndex mIndex = new CountrySearchIndex(mCountries);
+    private final int[] mPositions = new int[mCountries.size()];
+
+    @Test
+    public void emptyQueryMatchesAll() {
+        assertEquals(mCountries.size(), mIndex.search("", mPositions));
+        assertEquals(mCountries.size(), mIndex.search(" + ", mPositions));
+    }
+
+    @Test
+    public void matchesWordPrefixes() {
+        assertMatches("united", 3, 4);
+        assertMatches("United K", 3);
+        assertMatches("states", 4);
+        assertMatches("shqip", 0);
+        assertMatches("ישר", 1);
+        assertMatches("sao tome", 2);
+        assertMatches("xyz");
+    }
+
+    @Test
+    public void matchesCodes() {
+        assertMatches("GB", 3);
+        assertMatches("+1", 4, 5);
+        assertMatches("97", 1);
+        assertMatches("+44", 3);
+    }
+
+    @Test
+    public void peekNeverBuilds() {
+        Locale locale = CountryDisplayNames.getLocale();
+        try {
+            CountrySearchIndex index = CountrySearchIndex.getDefault();
+            assertSame(index, CountrySearchIndex.peekDefault());
+
+            // Stale for another display locale until built again
+            CountryDisplayNames.setLocale(Locale.GERMAN.equals(locale) ? Locale.FRENCH : Locale.GERMAN);
+            assertNull(CountrySearchIndex.peekDefault());
+            assertNull(CountrySearchIndex.peekDefault());
+            CountrySearchIndex rebuilt = CountrySearchIndex.getDefault();
+            assertSame(rebuilt, CountrySearchIndex.peekDefault());
+        } finally {
+            CountryDisplayNames.setLocale(locale);
+        }
+    }
+
+    private void assertMatches(String query, int... expected) {
+        int count = mIndex.search(query, mPositions);
+        assertEquals(query, expected.length, count);
+        for (int i = 0; i < count; i++) {
+            assertEquals(query, expected[i], mPositions[i]);
+        }
+    }
+}
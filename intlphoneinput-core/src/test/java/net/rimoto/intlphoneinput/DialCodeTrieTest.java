@@ -0,0 +1,83 @@
+package net.rimoto.intlphoneinput;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Country detection from the first digits, on a small NANP-like registry
+ */
+public class DialCodeTrieTest {
+    private static final int US = 0;
+    private static final int CA = 1;
+    private static final int AS = 2;
+    private static final int GB = 3;
+    private static final int GG = 4;
+    private static final int FI = 5;
+
+    private final List<Country> mCountries = Arrays.asList(
+            new Country("United States", "us", 1, 0),
+            new Country("Canada", "ca", 1, 1),
+            new Country("American Samoa", "as", 1684, 0),
+            new Country("United Kingdom", "gb", 44, 0),
+            new Country("Guernsey", "gg", 44, 1),
+            new Country("Finland", "fi", 358, 0));
+    private final DialCodeTrie mTrie = new DialCodeTrie(mCountries, new String[][]{
+            null, {"204", "604", "613"}, null, null, null, null});
+
+    @Test
+    public void picksCountryOnceUnambiguous() {
+        assertEquals(4, mTrie.getMaxDigits());
+        assertEquals(-1, mTrie.find("+", -1));
+        assertEquals(-1, mTrie.find("+3", -1));
+        assertEquals(-1, mTrie.find("+35", -1));
+        assertEquals(FI, mTrie.find("+358", -1));
+        assertEquals(GB, mTrie.find("+44", -1));
+        assertEquals(GB, mTrie.find(" +4 4 20", -1));
+    }
+
+    @Test
+    public void areaCodesSplitSharedDialCode() {
+        assertEquals(US, mTrie.find("+1", -1));
+        assertEquals(US, mTrie.find("+1 650 253", -1));
+        assertEquals(CA, mTrie.find("+1 204", -1));
+        assertEquals(CA, mTrie.find("+1 (604) 555", US));
+        assertEquals(AS, mTrie.find("+1 684", US));
+        assertEquals(AS, mTrie.find("+1684", CA));
+    }
+
+    @Test
+    public void keepsSelectionWhileItStillMatches() {
+        // Canada keeps +1 and +16 (+1604, +1613) but not +165
+        assertEquals(-1, mTrie.find("+1", CA));
+        assertEquals(-1, mTrie.find("+16", CA));
+        assertEquals(US, mTrie.find("+165", CA));
+        assertEquals(-1, mTrie.find("+168", AS));
+        assertEquals(US, mTrie.find("+1 650", AS));
+
+        // Countries sharing a dial code without area codes
+        assertEquals(-1, mTrie.find("+44 20", GG));
+        assertEquals(GB, mTrie.find("+44 20", US));
+        assertEquals(-1, mTrie.find("+44", GB));
+    }
+
+    @Test
+    public void nationalTextIsNotLookedUp() {
+        assertEquals(-1, mTrie.find("204 555", -1));
+        assertEquals(-1, mTrie.find("", US));
+    }
+
+    @Test
+    public void findsCountryOfParsedNumber() {
+        assertEquals(CA, mTrie.find(1, 2045551234L, US));
+        assertEquals(AS, mTrie.find(1, 6847331234L, -1));
+        assertEquals(US, mTrie.find(1, 6502530000L, CA));
+        assertEquals(-1, mTrie.find(1, 6502530000L, US));
+        assertEquals(GB, mTrie.find(44, 2070313000L, -1));
+        assertEquals(-1, mTrie.find(44, 2070313000L, GG));
+        assertEquals(-1, mTrie.find(0, 0L, -1));
+    }
+}
@@ -0,0 +1,75 @@
+package net.rimoto.intlphoneinput;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Random adds and removes against HashSet, on few distinct keys so that probe runs are long
+ */
+public class LongHashSetTest {
+
+    @Test
+    public void behavesLikeHashSet() {
+        Random random = new Random(25);
+        LongHashSet set = new LongHashSet();
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 200000; i++) {
+            long key = random.nextInt(5000) - 100;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), set.remove(key));
+            } else {
+                assertEquals(expected.add(key), set.add(key));
+            }
+            assertEquals(expected.size(), set.size());
+        }
+        for (long key = -100; key < 4900; key++) {
+            assertEquals(expected.contains(key), set.contains(key));
+        }
+        assertArrayEquals(sorted(expected), sorted(set.toArray()));
+
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(0));
+        assertFalse(set.contains(expected.iterator().next()));
+    }
+
+    @Test
+    public void holdsPackedNumbers() {
+        LongHashSet set = new LongHashSet(3);
+        long number = PackedPhoneNumber.pack(44, 2070313000L, 0);
+        assertTrue(set.add(number));
+        assertFalse(set.add(PackedPhoneNumber.pack(44, 2070313000L, 0)));
+        assertTrue(set.add(PackedPhoneNumber.pack(39, 212345678L, 1)));
+        assertTrue(set.add(PackedPhoneNumber.pack(39, 212345678L, 0)));
+        assertTrue(set.add(0));
+        assertTrue(set.add(Long.MIN_VALUE));
+        assertEquals(5, set.size());
+        assertTrue(set.remove(number));
+        assertFalse(set.contains(number));
+        assertTrue(set.contains(0));
+        assertEquals(4, set.toArray().length);
+    }
+
+    private static long[] sorted(Set<Long> keys) {
+        long[] array = new long[keys.size()];
+        int i = 0;
+        for (long key : keys) {
+            array[i++] = key;
+        }
+        return sorted(array);
+    }
+
+    private static long[] sorted(long[] array) {
+        Arrays.sort(array);
+        return array;
+    }
+}
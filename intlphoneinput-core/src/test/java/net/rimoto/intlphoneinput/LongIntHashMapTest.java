@@ -0,0 +1,81 @@
+package net.rimoto.intlphoneinput;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Random puts and removes against HashMap
+ */
+public class LongIntHashMapTest {
+
+    @Test
+    public void behavesLikeHashMap() {
+        Random random = new Random(25);
+        LongIntHashMap map = new LongIntHashMap();
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 200000; i++) {
+            long key = random.nextInt(5000) - 100;
+            int value = random.nextInt();
+            switch (random.nextInt(4)) {
+                case 0:
+                    assertEquals(expected.remove(key) != null, map.remove(key));
+                    break;
+                case 1:
+                    Integer existing = expected.get(key);
+                    if (existing == null) {
+                        expected.put(key, value);
+                    }
+                    assertEquals(existing != null ? existing : value, map.putIfAbsent(key, value));
+                    break;
+                default:
+                    expected.put(key, value);
+                    map.put(key, value);
+                    break;
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (long key = -100; key < 4900; key++) {
+            Integer value = expected.get(key);
+            assertEquals(value != null, map.containsKey(key));
+            if (value != null) {
+                assertEquals((int) value, map.get(key, value + 1));
+            } else {
+                assertEquals(-7, map.get(key, -7));
+            }
+        }
+        assertEquals(expected.size(), map.keys().length);
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(0));
+    }
+
+    @Test
+    public void keepsFirstRowOfEveryNumber() {
+        long[] numbers = {
+                PackedPhoneNumber.pack(1, 6502530000L, 0),
+                PackedPhoneNumber.pack(44, 2070313000L, 0),
+                PackedPhoneNumber.pack(1, 6502530000L, 0),
+                PackedPhoneNumber.pack(44, 2070313000L, 0),
+                PackedPhoneNumber.pack(972, 501234567L, 0),
+        };
+        LongIntHashMap firstRows = new LongIntHashMap(numbers.length);
+        int duplicates = 0;
+        for (int row = 0; row < numbers.length; row++) {
+            if (firstRows.putIfAbsent(numbers[row], row) != row) {
+                duplicates++;
+            }
+        }
+        assertEquals(2, duplicates);
+        assertEquals(3, firstRows.size());
+        assertEquals(1, firstRows.get(numbers[3], -1));
+        assertEquals(4, firstRows.get(numbers[4], -1));
+    }
+}
@@ -0,0 +1,84 @@
+package net.rimoto.intlphoneinput;
+
+import com.google.i18n.phonenumbers.NumberParseException;
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.Phonenumber;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Round trips of packed numbers through PhoneNumber and E.164
+ */
+public class PackedPhoneNumberTest {
+    private final PhoneNumberUtil mPhoneUtil = PhoneNumberUtil.getInstance();
+
+    @Test
+    public void packsFields() {
+        long packed = PackedPhoneNumber.pack(39, 612345678L, 1);
+        assertEquals(39, PackedPhoneNumber.getCountryCode(packed));
+        assertEquals(612345678L, PackedPhoneNumber.getNationalNumber(packed));
+        assertEquals(1, PackedPhoneNumber.getNumberOfLeadingZeros(packed));
+        assertEquals("+390612345678", PackedPhoneNumber.toE164(packed));
+        assertTrue(packed > 0);
+
+        // Sorted by calling code
+        assertTrue(PackedPhoneNumber.pack(1, 99999999999999L, 0) < PackedPhoneNumber.pack(7, 1, 0));
+        assertTrue(PackedPhoneNumber.pack(999, 99999999999L, 0) > 0);
+
+        assertEquals(PackedPhoneNumber.NONE, PackedPhoneNumber.pack(0, 123, 0));
+        assertEquals(PackedPhoneNumber.NONE, PackedPhoneNumber.pack(1000, 123, 0));
+        assertEquals(PackedPhoneNumber.NONE, PackedPhoneNumber.pack(1, 123, 8));
+        // 16 digits
+        assertEquals(PackedPhoneNumber.NONE, PackedPhoneNumber.pack(44, 12345678901234L, 0));
+        assertEquals(PackedPhoneNumber.NONE, PackedPhoneNumber.pack(44, 1234567890123L, 1));
+        assertNull(PackedPhoneNumber.toE164(PackedPhoneNumber.NONE));
+        assertNull(PackedPhoneNumber.toPhoneNumber(PackedPhoneNumber.NONE));
+    }
+
+    @Test
+    public void roundTripsExampleNumbers() throws NumberParseException {
+        int count = 0;
+        for (String region : mPhoneUtil.getSupportedRegions()) {
+            for (PhoneNumberUtil.PhoneNumberType type : PhoneNumberUtil.PhoneNumberType.values()) {
+                Phonenumber.PhoneNumber example = mPhoneUtil.getExampleNumberForType(region, type);
+                if (example == null) {
+                    continue;
+                }
+                String e164 = mPhoneUtil.format(example, PhoneNumberUtil.PhoneNumberFormat.E164);
+                Phonenumber.PhoneNumber number = mPhoneUtil.parse(e164, "ZZ");
+                long packed = PackedPhoneNumber.pack(number);
+
+                assertEquals(e164, PackedPhoneNumber.toE164(packed));
+                assertEquals(e164, packed, PackedPhoneNumber.pack(mPhoneUtil, e164));
+                Phonenumber.PhoneNumber unpacked = PackedPhoneNumber.toPhoneNumber(packed);
+                assertTrue(e164, number.exactlySameAs(unpacked));
+                assertEquals(e164, mPhoneUtil.format(unpacked, PhoneNumberUtil.PhoneNumberFormat.E164));
+                assertEquals(packed, PackedPhoneNumber.pack(unpacked));
+                count++;
+            }
+        }
+        assertTrue(count > 1000);
+    }
+
+    @Test
+    public void packsLeadingZerosLikeLibphonenumber() throws NumberParseException {
+        for (String e164 : new String[]{"+390612345678", "+39006123456", "+2250123456789", "+447400123456", "+80012345678"}) {
+            Phonenumber.PhoneNumber number = mPhoneUtil.parse(e164, "ZZ");
+            long packed = PackedPhoneNumber.pack(mPhoneUtil, e164);
+            assertEquals(e164, PackedPhoneNumber.pack(number), packed);
+            assertTrue(e164, number.exactlySameAs(PackedPhoneNumber.toPhoneNumber(packed)));
+        }
+    }
+
+    @Test
+    public void rejectsOtherText() {
+        for (String text : new String[]{"", "+", "+1", "14155552671", "+1 415 555 2671", "+0123456789",
+                "+9991234567", "+4412345678901234"}) {
+            assertEquals(text, PackedPhoneNumber.NONE, PackedPhoneNumber.pack(mPhoneUtil, text));
+        }
+    }
+}
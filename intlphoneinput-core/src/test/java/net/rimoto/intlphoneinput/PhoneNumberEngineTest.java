@@ -0,0 +1,75 @@
+package net.rimoto.intlphoneinput;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The core engine on the plain JVM, without any Android runtime
+ */
+public class PhoneNumberEngineTest {
+    private final PhoneNumberEngine mEngine = PhoneNumberEngine.getDefault();
+
+    @Test
+    public void parsesNationalAndInternationalNumbers() {
+        PhoneNumberState national = mEngine.parse("020 7031 3000", "GB");
+        assertTrue(national.isValid());
+        assertEquals("+442070313000", national.getE164());
+        assertEquals(44, national.getCountryCode());
+
+        PhoneNumberState international = mEngine.parse("+44 20 7031 3000", "us");
+        assertEquals("+442070313000", international.getE164());
+        assertEquals(national.getNational(), international.getNational());
+    }
+
+    @Test
+    public void invalidTextHasNoNumber() {
+        PhoneNumberState state = mEngine.parse("abc", "GB");
+        assertFalse(state.isValid());
+        assertNull(state.getE164());
+        assertEquals(0, state.getCountryCode());
+        assertEquals(-1, mEngine.findCountry(state, null));
+    }
+
+    @Test
+    public void updateReusesMatchingState() {
+        PhoneNumberState state = mEngine.parse("020 7031 3000", "GB");
+        assertSame(state, mEngine.update(state, "020 7031 3000", "GB"));
+        assertFalse(state == mEngine.update(state, "020 7031 300", "GB"));
+
+        PhoneNumberState international = mEngine.parse("+44 20 7031 3000", "GB");
+        assertSame(international, mEngine.update(international, "+44 20 7031 3000", "FR"));
+    }
+
+    @Test
+    public void findsCountryOfDialCode() {
+        int gb = Countries.indexOfIso("gb");
+        if (gb < 0) {
+            // Trimmed build without GB
+            return;
+        }
+        PhoneNumberState state = mEngine.parse("+44 20 7031 3000", "");
+        assertEquals(gb, mEngine.findCountry(state, null));
+        assertEquals(-1, mEngine.findCountry(state, Countries.COUNTRIES.get(gb)));
+        assertEquals(gb, Countries.indexOfDialCode(44));
+        assertEquals(Countries.indexOfIso("GB"), gb);
+    }
+
+    @Test
+    public void restoredStateMatchesWithoutParsing() {
+        PhoneNumberState state = mEngine.parse("020 7031 3000", "GB");
+        PhoneNumberState restored = PhoneNumberState.restore(mEngine.getPhoneUtil(), state.getText(), state.getRegion(),
+                state.getPhoneNumber(), state.isValid());
+        assertSame(restored, mEngine.update(restored, "020 7031 3000", "GB"));
+        assertTrue(restored.isValid());
+        assertEquals(state.getE164(), restored.getE164());
+
+        PhoneNumberState invalid = PhoneNumberState.restore(mEngine.getPhoneUtil(), "abc", "GB", null, true);
+        assertFalse(invalid.isValid());
+        assertNull(invalid.getE164());
+    }
+}
@@ -0,0 +1,138 @@
+package net.rimoto.intlphoneinput;
+
+import com.google.i18n.phonenumbers.PhoneNumberUtil.PhoneNumberType;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Debounce, distinct-until-changed and batching on a manual scheduler
+ */
+public class PhoneNumberEventStreamTest {
+    private final List<List<PhoneNumberEvent>> mDeliveries = new ArrayList<>();
+    private final ManualScheduler mScheduler = new ManualScheduler();
+    private final PhoneNumberEventStream mStream = new PhoneNumberEventStream(new PhoneNumberEventStream.Listener() {
+        @Override
+        public void onPhoneNumberEvents(List<PhoneNumberEvent> events) {
+            mDeliveries.add(events);
+        }
+    }, mScheduler);
+
+    @Test
+    public void burstIsDeliveredOnce() {
+        PhoneNumberEvent last = null;
+        for (String text : new String[]{"2", "20", "207", "2070", "20703"}) {
+            last = event(text, "+44" + text, false);
+            mStream.offer(last);
+            mScheduler.advance(100);
+        }
+        assertTrue(mDeliveries.isEmpty());
+        mScheduler.advance(PhoneNumberEventStream.DEFAULT_DEBOUNCE);
+        assertEquals(1, mDeliveries.size());
+        assertEquals(1, mDeliveries.get(0).size());
+        assertSame(last, mDeliveries.get(0).get(0));
+    }
+
+    @Test
+    public void unchangedNumberIsDropped() {
+        mStream.offer(event("2070313000", "+442070313000", true));
+        mScheduler.advance(PhoneNumberEventStream.DEFAULT_DEBOUNCE);
+        // Formatting only
+        mStream.offer(event("020 7031 3000", "+442070313000", true));
+        mScheduler.advance(PhoneNumberEventStream.DEFAULT_DEBOUNCE);
+        assertEquals(1, mDeliveries.size());
+
+        // Edited, then back to the delivered number within the burst
+        mStream.offer(event("020 7031 300", "+44207031300", false));
+        mStream.offer(event("020 7031 3000", "+442070313000", true));
+        mScheduler.advance(PhoneNumberEventStream.DEFAULT_DEBOUNCE);
+        assertEquals(1, mDeliveries.size());
+
+        mStream.setDistinctUntilChanged(false);
+        mStream.offer(event("020 7031 3000", "+442070313000", true));
+        mScheduler.advance(PhoneNumberEventStream.DEFAULT_DEBOUNCE);
+        assertEquals(2, mDeliveries.size());
+    }
+
+    @Test
+    public void batchingDeliversTheWholeBurst() {
+        mStream.setBatching(true);
+        mStream.setDebounce(50);
+        mStream.offer(event("1", "+441", false));
+        mStream.offer(event("12", "+4412", false));
+        mStream.offer(event("12", "+4412", false));
+        mStream.offer(event("123", "+44123", false));
+        mScheduler.advance(50);
+        assertEquals(1, mDeliveries.size());
+        assertEquals(3, mDeliveries.get(0).size());
+        assertEquals("123", mDeliveries.get(0).get(2).getText());
+
+        mStream.setMaxBatchSize(2);
+        mStream.offer(event("1234", "+441234", false));
+        mStream.offer(event("12345", "+4412345", false));
+        assertEquals(2, mDeliveries.size());
+        assertFalse(mScheduler.hasPending());
+    }
+
+    @Test
+    public void flushAndCancel() {
+        mStream.offer(event("1", "+441", false));
+        mStream.flush();
+        assertEquals(1, mDeliveries.size());
+        assertFalse(mScheduler.hasPending());
+
+        mStream.offer(event("12", "+4412", false));
+        mStream.cancel();
+        mScheduler.advance(PhoneNumberEventStream.DEFAULT_DEBOUNCE);
+        assertEquals(1, mDeliveries.size());
+
+        mStream.setDebounce(0);
+        mStream.offer(event("12", "+4412", false));
+        assertEquals(2, mDeliveries.size());
+    }
+
+    private static PhoneNumberEvent event(String text, String e164, boolean valid) {
+        return new PhoneNumberEvent(text, e164, "GB", valid, valid ? PhoneNumberType.FIXED_LINE : PhoneNumberType.UNKNOWN);
+    }
+
+    /**
+     * Runs at most one delayed runnable at a time, which is all the stream schedules
+     */
+    private static class ManualScheduler implements PhoneNumberEventStream.Scheduler {
+        private Runnable mRunnable;
+        private long mDelay;
+
+        @Override
+        public void schedule(Runnable runnable, long delay) {
+            mRunnable = runnable;
+            mDelay = delay;
+        }
+
+        @Override
+        public void cancel(Runnable runnable) {
+            if (mRunnable == runnable) {
+                mRunnable = null;
+            }
+        }
+
+        void advance(long millis) {
+            mDelay -= millis;
+            if (mRunnable != null && mDelay <= 0) {
+                Runnable runnable = mRunnable;
+                mRunnable = null;
+                runnable.run();
+            }
+        }
+
+        boolean hasPending() {
+            return mRunnable != null;
+        }
+    }
+}
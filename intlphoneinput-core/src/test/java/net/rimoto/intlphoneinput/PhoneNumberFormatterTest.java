@@ -0,0 +1,122 @@
+package net.rimoto.intlphoneinput;
+
+import com.google.i18n.phonenumbers.AsYouTypeFormatter;
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Replays keystroke sequences through the incremental formatter and compares every step with a fresh
+ * AsYouTypeFormatter fed the whole text
+ */
+public class PhoneNumberFormatterTest {
+    private final PhoneNumberUtil mPhoneUtil = PhoneNumberEngine.getDefault().getPhoneUtil();
+
+    @Test
+    public void typingAtTheEnd() {
+        PhoneNumberFormatter formatter = new PhoneNumberFormatter(mPhoneUtil, "US");
+        String text = "";
+        for (char c : "6502530000".toCharArray()) {
+            text = type(formatter, text, text.length(), c);
+            assertEquals(formatter.getCursor(), text.length());
+        }
+        assertEquals(reference("US", "6502530000"), text);
+
+        formatter.setRegion("GB");
+        text = "";
+        for (char c : "+442070313000".toCharArray()) {
+            text = type(formatter, text, text.length(), c);
+        }
+        assertEquals("+44 20 7031 3000", text);
+    }
+
+    @Test
+    public void backspace() {
+        PhoneNumberFormatter formatter = new PhoneNumberFormatter(mPhoneUtil, "US");
+        String text = formatter.format("6502530000", 10);
+        while (!text.isEmpty()) {
+            int cursor = text.length() - 1;
+            String edited = text.substring(0, cursor);
+            text = formatter.format(edited, cursor);
+            assertEquals(reference("US", edited), text);
+            assertEquals(text.length(), formatter.getCursor());
+        }
+    }
+
+    @Test
+    public void insertInTheMiddle() {
+        PhoneNumberFormatter formatter = new PhoneNumberFormatter(mPhoneUtil, "US");
+        String text = formatter.format("650253000", 9);
+        // Insert a 0 after "6502530"
+        int cursor = positionAfter(text, 7);
+        text = type(formatter, text, cursor, '0');
+        assertEquals(reference("US", "6502530000"), text);
+        assertEquals(positionAfter(text, 8), formatter.getCursor());
+    }
+
+    @Test
+    public void separatorsTypedByTheUserAreReformatted() {
+        PhoneNumberFormatter formatter = new PhoneNumberFormatter(mPhoneUtil, "US");
+        String expected = reference("US", "6502530000");
+        assertEquals(expected, formatter.format("650-253-0000", 12));
+        assertEquals(expected, formatter.format("650.253.0000", 12));
+    }
+
+    @Test
+    public void otherCharactersAreLeftAsIs() {
+        PhoneNumberFormatter formatter = new PhoneNumberFormatter(mPhoneUtil, "US");
+        assertEquals("650 call me", formatter.format("650 call me", 11));
+        assertEquals(11, formatter.getCursor());
+        assertEquals(reference("US", "6502530000"), formatter.format("6502530000", 10));
+    }
+
+    @Test
+    public void regionSwitchReformats() {
+        PhoneNumberFormatter formatter = new PhoneNumberFormatter(mPhoneUtil, null);
+        assertEquals("", formatter.getRegion());
+        formatter.setRegion("gb");
+        assertEquals("GB", formatter.getRegion());
+        assertEquals(reference("GB", "02070313000"), formatter.format("02070313000", 11));
+
+        formatter.setRegion("US");
+        assertEquals(reference("US", "02070313000"), formatter.format("020 7031 3000", 13));
+        formatter.setRegion("GB");
+        assertEquals(reference("GB", "02070313000"), formatter.format("020 7031 3000", 13));
+    }
+
+    /**
+     * Insert c at cursor, format and check against the reference
+     */
+    private String type(PhoneNumberFormatter formatter, String text, int cursor, char c) {
+        String edited = text.substring(0, cursor) + c + text.substring(cursor);
+        String formatted = formatter.format(edited, cursor + 1);
+        assertEquals(edited, reference(formatter.getRegion(), edited), formatted);
+        return formatted;
+    }
+
+    /**
+     * Position after the given number of digits
+     */
+    private static int positionAfter(String text, int digits) {
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isDigit(text.charAt(i)) && --digits == 0) {
+                return i + 1;
+            }
+        }
+        return text.length();
+    }
+
+    private String reference(String region, CharSequence text) {
+        AsYouTypeFormatter formatter = mPhoneUtil.getAsYouTypeFormatter(region);
+        String formatted = "";
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isDigit(c) || c == '+') {
+                formatted = formatter.inputDigit(c);
+            }
+        }
+        return formatted;
+    }
+}
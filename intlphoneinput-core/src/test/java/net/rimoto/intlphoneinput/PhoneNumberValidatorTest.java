@@ -0,0 +1,140 @@
+package net.rimoto.intlphoneinput;
+
+import com.google.i18n.phonenumbers.NumberParseException;
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.Phonenumber;
+
+import net.rimoto.intlphoneinput.generator.ValidationTableGenerator;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Automata compiled from the libphonenumber metadata against {@link PhoneNumberUtil#isValidNumber}
+ * on example numbers, their variations and random numbers
+ */
+public class PhoneNumberValidatorTest {
+    /**
+     * Calling codes of a single region, shared ones with and without leading digits (1, 44, 7), Italian leading zeros
+     */
+    static final List<String> REGIONS = Arrays.asList("US", "GB", "DE", "FR", "IT", "IN", "BR", "RU", "AU", "CN",
+            "JP", "SG", "ID", "MX", "AR", "NG");
+
+    private final PhoneNumberUtil mPhoneUtil = PhoneNumberUtil.getInstance();
+
+    static PhoneNumberValidator compile(Collection<String> regions, Collection<String> metadataRegions) throws IOException {
+        ValidationTableGenerator.Table table = ValidationTableGenerator.compile(regions, metadataRegions);
+        return new PhoneNumberValidator(table.countryCodes, table.groupStarts, table.regions, table.valid, table.leadingDigits);
+    }
+
+    @Test
+    public void matchesLibphonenumber() throws IOException {
+        PhoneNumberValidator validator = compile(REGIONS, Collections.<String>emptyList());
+        int valid = 0;
+        int invalid = 0;
+        for (Phonenumber.PhoneNumber number : createNumbers(mPhoneUtil, validator.getRegions(), new Random(24))) {
+            boolean expected = mPhoneUtil.isValidNumber(number);
+            assertEquals(mPhoneUtil.getNationalSignificantNumber(number) + " +" + number.getCountryCode(),
+                    expected, validator.isValidNumber(mPhoneUtil, number));
+            if (expected) {
+                valid++;
+            } else {
+                invalid++;
+            }
+        }
+        // Both outcomes are covered
+        assertTrue(valid > 500);
+        assertTrue(invalid > 500);
+    }
+
+    @Test
+    public void otherCallingCodesFallBack() throws IOException {
+        PhoneNumberValidator validator = compile(REGIONS, Collections.<String>emptyList());
+        assertTrue(validator.isCompiled(1));
+        assertTrue(validator.isCompiled(39));
+        assertFalse(validator.isCompiled(972));
+        assertFalse(validator.isCompiled(0));
+        assertFalse(validator.isCompiled(1000));
+
+        Phonenumber.PhoneNumber number = mPhoneUtil.getExampleNumberForType("IL", PhoneNumberUtil.PhoneNumberType.MOBILE);
+        assertTrue(validator.isValidNumber(mPhoneUtil, number));
+        number.setNationalNumber(number.getNationalNumber() / 10);
+        assertEquals(mPhoneUtil.isValidNumber(number), validator.isValidNumber(mPhoneUtil, number));
+
+        PhoneNumberValidator none = compile(Collections.<String>emptyList(), Collections.<String>emptyList());
+        assertEquals(0, none.getRegions().length);
+        assertFalse(none.isCompiled(1));
+    }
+
+    @Test
+    public void trimmedRegionsAreNeverValid() throws IOException {
+        // Jersey, Guernsey and the Isle of Man share +44 but are stubs in a GB only trimmed build
+        PhoneNumberValidator validator = compile(Collections.singletonList("GB"), Collections.singletonList("GB"));
+        assertTrue(Arrays.asList(validator.getRegions()).containsAll(Arrays.asList("GB", "JE", "GG", "IM")));
+        assertTrue(validator.isValidNumber(mPhoneUtil, mPhoneUtil.getExampleNumber("GB")));
+        for (Phonenumber.PhoneNumber number : createNumbers(mPhoneUtil, validator.getRegions(), new Random(42))) {
+            if (validator.isValidNumber(mPhoneUtil, number)) {
+                assertEquals("GB", mPhoneUtil.getRegionCodeForNumber(number));
+            }
+        }
+    }
+
+    /**
+     * Example numbers of every type of the regions, each truncated, extended and with every digit replaced,
+     * plus random numbers of every length
+     */
+    static List<Phonenumber.PhoneNumber> createNumbers(PhoneNumberUtil phoneUtil, String[] regions, Random random) {
+        List<Phonenumber.PhoneNumber> numbers = new ArrayList<>();
+        for (String region : regions) {
+            int countryCode = phoneUtil.getCountryCodeForRegion(region);
+            for (PhoneNumberUtil.PhoneNumberType type : PhoneNumberUtil.PhoneNumberType.values()) {
+                Phonenumber.PhoneNumber example = phoneUtil.getExampleNumberForType(region, type);
+                if (example == null) {
+                    continue;
+                }
+                String digits = phoneUtil.getNationalSignificantNumber(example);
+                add(phoneUtil, numbers, countryCode, digits);
+                for (int length = 1; length < digits.length(); length++) {
+                    add(phoneUtil, numbers, countryCode, digits.substring(0, length));
+                }
+                for (int i = 0; i <= digits.length(); i++) {
+                    for (char digit = '0'; digit <= '9'; digit++) {
+                        if (i < digits.length()) {
+                            add(phoneUtil, numbers, countryCode, digits.substring(0, i) + digit + digits.substring(i + 1));
+                        } else {
+                            add(phoneUtil, numbers, countryCode, digits + digit);
+                        }
+                    }
+                }
+            }
+            for (int i = 0; i < 200; i++) {
+                StringBuilder digits = new StringBuilder();
+                int length = 2 + random.nextInt(16);
+                for (int j = 0; j < length; j++) {
+                    digits.append((char) ('0' + random.nextInt(10)));
+                }
+                add(phoneUtil, numbers, countryCode, digits.toString());
+            }
+        }
+        return numbers;
+    }
+
+    private static void add(PhoneNumberUtil phoneUtil, List<Phonenumber.PhoneNumber> numbers, int countryCode, String digits) {
+        try {
+            numbers.add(phoneUtil.parse("+" + countryCode + digits, "ZZ"));
+        } catch (NumberParseException ignored) {
+            // Too short or too long to be a number at all
+        }
+    }
+}
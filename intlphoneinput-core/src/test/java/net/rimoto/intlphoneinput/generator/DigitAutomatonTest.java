@@ -0,0 +1,107 @@
+package net.rimoto.intlphoneinput.generator;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compiled automata against java.util.regex on random digit strings
+ */
+public class DigitAutomatonTest {
+    /**
+     * Shapes of libphonenumber national number and leading digits patterns
+     */
+    private static final String[] PATTERNS = {
+            "[2-9]\\d{9}",
+            "(?:2(?:0[1-35-9]|1[02-9])|3(?:[025689][02-9]|4[1-9]))[2-9]\\d{6}",
+            "7(?:[1-57-9]\\d{2}|624)\\d{5}|(?:[13]\\d|2[0-8])\\d{7,8}",
+            "0\\d{5,10}|3[0-8]\\d{7,10}|55\\d{8}|8[08]\\d{6,7}",
+            "1(?:5[0-25-9]\\d{8}|6[023]\\d{7,8}|7\\d{8})|15[0-9]{7,11}",
+            "[1-9]\\d{4,8}|(?:[12]|3[3-8])?\\d{3,}",
+            "(?:0|4\\d)?(?:1[01]|22)",
+            "[^0-1]\\d?(?:)|",
+            "(2)(?:[0-4]|5\\d)+",
+    };
+
+    private static final String[] LEADING_DIGITS = {
+            "7(?:[014-9]|2[2-9]|3[0-8])",
+            "1534|7(?:00|509|7(?:00|97))",
+            "33|7",
+            "\\d",
+    };
+
+    @Test
+    public void matchesLikeRegex() {
+        Random random = new Random(24);
+        for (String regex : PATTERNS) {
+            Pattern pattern = Pattern.compile(regex);
+            DigitAutomaton automaton = DigitAutomaton.compile(regex);
+            for (String digits : samples(random, regex)) {
+                assertEquals(regex + " " + digits, pattern.matcher(digits).matches(), automaton.accepts(digits));
+            }
+        }
+    }
+
+    @Test
+    public void prefixMatchesLikeLookingAt() {
+        Random random = new Random(42);
+        for (String regex : LEADING_DIGITS) {
+            Pattern pattern = Pattern.compile(regex);
+            DigitAutomaton automaton = DigitAutomaton.compilePrefix(regex);
+            for (String digits : samples(random, regex)) {
+                assertEquals(regex + " " + digits, pattern.matcher(digits).lookingAt(), automaton.accepts(digits));
+            }
+        }
+    }
+
+    @Test
+    public void combinesLikeLibphonenumber() {
+        DigitAutomaton general = DigitAutomaton.compile("[1-9]\\d{5,9}").and(DigitAutomaton.lengths(Arrays.asList(6, 10)));
+        DigitAutomaton types = DigitAutomaton.compile("7\\d+").or(DigitAutomaton.compile("1\\d{5}"));
+        DigitAutomaton valid = general.and(types);
+        assertTrue(valid.accepts("7123456789"));
+        assertTrue(valid.accepts("123456"));
+        assertFalse(valid.accepts("71234567"));
+        assertFalse(valid.accepts("2123456789"));
+        assertFalse(valid.accepts("1234567890"));
+
+        assertTrue(DigitAutomaton.lengths(Arrays.asList(-1)).isEmpty());
+        assertTrue(DigitAutomaton.compile("1").and(DigitAutomaton.compile("2")).isEmpty());
+        assertEquals(DigitAutomaton.compile("1(?:2|3)").encode(), DigitAutomaton.compile("1[23]").encode());
+    }
+
+    @Test
+    public void rejectsOtherConstructs() {
+        for (String regex : new String[]{"1.", "(?=1)2", "1*?", "1{2", "[a-z]", "\\s", "(1"}) {
+            try {
+                DigitAutomaton.compile(regex);
+                throw new AssertionError("Compiled " + regex);
+            } catch (IllegalArgumentException expected) {
+                // Not a digit pattern
+            }
+        }
+    }
+
+    /**
+     * Random digit strings, biased to the digits of the pattern so that matches are frequent
+     */
+    private static String[] samples(Random random, String regex) {
+        String[] samples = new String[20000];
+        String digits = regex.replaceAll("[^0-9]", "") + "0123456789";
+        for (int i = 0; i < samples.length; i++) {
+            StringBuilder builder = new StringBuilder();
+            int length = random.nextInt(14);
+            for (int j = 0; j < length; j++) {
+                builder.append(digits.charAt(random.nextInt(digits.length())));
+            }
+            samples[i] = builder.toString();
+        }
+        return samples;
+    }
+}
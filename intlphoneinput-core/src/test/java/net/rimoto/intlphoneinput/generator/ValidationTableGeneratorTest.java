@@ -0,0 +1,73 @@
+package net.rimoto.intlphoneinput.generator;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * String literals of the generated ValidationTable source
+ */
+public class ValidationTableGeneratorTest {
+
+    @Test
+    public void literalsSurviveUnicodeTranslation() {
+        StringBuilder value = new StringBuilder();
+        for (char c = 0; c < 0x200; c++) {
+            value.append(c).append('7');
+        }
+        value.append((char) 0xffff);
+        String literal = ValidationTableGenerator.javaString(value.toString());
+        assertEquals(value.toString(), parseLiteral(translateUnicodeEscapes(literal)));
+    }
+
+    /**
+     * First step of javac: unicode escapes become the characters, i.e. line breaks, before the literal is lexed
+     */
+    private static String translateUnicodeEscapes(String source) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (c == '\\' && source.charAt(i + 1) == 'u') {
+                builder.append((char) Integer.parseInt(source.substring(i + 2, i + 6), 16));
+                i += 5;
+            } else if (c == '\\') {
+                builder.append(c).append(source.charAt(++i));
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * String literal with octal and single character escapes, on one line
+     */
+    private static String parseLiteral(String literal) {
+        assertEquals('"', literal.charAt(0));
+        assertEquals('"', literal.charAt(literal.length() - 1));
+        StringBuilder builder = new StringBuilder();
+        for (int i = 1; i < literal.length() - 1; i++) {
+            char c = literal.charAt(i);
+            if (c == '\n' || c == '\r' || c == '"') {
+                throw new AssertionError("Literal ends at " + i);
+            }
+            if (c != '\\') {
+                builder.append(c);
+                continue;
+            }
+            char next = literal.charAt(++i);
+            if (next >= '0' && next <= '7') {
+                int end = i;
+                int max = next <= '3' ? i + 3 : i + 2;
+                while (end < max && literal.charAt(end) >= '0' && literal.charAt(end) <= '7') {
+                    end++;
+                }
+                builder.append((char) Integer.parseInt(literal.substring(i, end), 8));
+                i = end - 1;
+            } else {
+                builder.append(next);
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,60 @@
+package net.rimoto.intlphoneinput;
+
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Flag lookup through the generated table against the former String.format + getIdentifier path:
+ * the ids must be equal, the timings are only logged
+ */
+@RunWith(AndroidJUnit4.class)
+public class CountryResIdBenchmark {
+    private static final String TAG = "CountryResIdBenchmark";
+    private static final int ROUNDS = 20;
+
+    @Test
+    public void tableMatchesGetIdentifier() {
+        Context context = InstrumentationRegistry.getTargetContext();
+        if (BuildConfig.FLAG_ATLAS) {
+            return;
+        }
+
+        for (Country country : Countries.COUNTRIES) {
+            assertEquals(country.getIso(), getIdentifier(context, country), CountryFlags.getResId(context, country));
+        }
+
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (Country country : Countries.COUNTRIES) {
+                sink += getIdentifier(context, country);
+            }
+        }
+        long identifierNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (Country country : Countries.COUNTRIES) {
+                sink += CountryFlags.getResId(context, country);
+            }
+        }
+        long tableNanos = System.nanoTime() - start;
+
+        int lookups = ROUNDS * Countries.COUNTRIES.size();
+        Log.i(TAG, String.format(Locale.US, "getIdentifier %dns/lookup, table %dns/lookup (%d)",
+                identifierNanos / lookups, tableNanos / lookups, sink));
+    }
+
+    private static int getIdentifier(Context context, Country country) {
+        return context.getResources().getIdentifier(String.format("country_%s", country.getIso().toLowerCase()), "drawable", context.getPackageName());
+    }
+}
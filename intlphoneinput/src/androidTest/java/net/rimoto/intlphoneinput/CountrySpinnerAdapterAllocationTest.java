@@ -0,0 +1,119 @@
+package net.rimoto.intlphoneinput;
+
+import android.app.Instrumentation;
+import android.content.Context;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.os.Debug;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Rebinding recycled rows to other countries must not allocate once their flags are cached
+ */
+@RunWith(AndroidJUnit4.class)
+public class CountrySpinnerAdapterAllocationTest {
+    private static final int REBINDS = 100;
+    private static final long FLAG_TIMEOUT_MS = 5000;
+
+    private CountrySpinnerAdapter mAdapter;
+    private FrameLayout mParent;
+    private final View[] mDropDownViews = new View[2];
+    private final View[] mValueViews = new View[2];
+    private int mFirst;
+    private int mSecond;
+
+    @Test
+    public void rebindToOtherCountryAllocatesNothing() {
+        Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                Context context = InstrumentationRegistry.getTargetContext();
+                mAdapter = new CountrySpinnerAdapter(context, Countries.COUNTRIES);
+                mParent = new FrameLayout(context);
+                mFirst = Countries.COUNTRIES.size() / 2;
+                mSecond = mFirst + 1;
+                for (int row = 0; row < 2; row++) {
+                    mDropDownViews[row] = mAdapter.getDropDownView(row == 0 ? mFirst : mSecond, null, mParent);
+                    mValueViews[row] = mAdapter.getView(row == 0 ? mFirst : mSecond, null, mParent);
+                }
+                swap(false);
+            }
+        });
+        awaitFlags(instrumentation);
+
+        final int[] allocations = new int[1];
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                // Warm-up pass over the cached flags
+                swap(true);
+                swap(true);
+
+                Debug.startAllocCounting();
+                Debug.resetThreadAllocCount();
+                for (int i = 0; i < REBINDS; i++) {
+                    swap(false);
+                }
+                allocations[0] = Debug.getThreadAllocCount();
+                Debug.stopAllocCounting();
+            }
+        });
+        assertEquals(0, allocations[0]);
+    }
+
+    /**
+     * Bind each row to the country the other row shows
+     */
+    private void swap(boolean check) {
+        int first = mFirst;
+        mFirst = mSecond;
+        mSecond = first;
+        for (int row = 0; row < 2; row++) {
+            int position = row == 0 ? mFirst : mSecond;
+            assertSame(mDropDownViews[row], mAdapter.getDropDownView(position, mDropDownViews[row], mParent));
+            assertSame(mValueViews[row], mAdapter.getView(position, mValueViews[row], mParent));
+            if (check) {
+                assertTrue(hasFlag(mDropDownViews[row]) && hasFlag(mValueViews[row]));
+            }
+        }
+    }
+
+    /**
+     * Wait for both countries to be decoded, rows show the placeholder until then
+     */
+    private void awaitFlags(Instrumentation instrumentation) {
+        final boolean[] ready = new boolean[1];
+        long deadline = SystemClock.uptimeMillis() + FLAG_TIMEOUT_MS;
+        while (!ready[0] && SystemClock.uptimeMillis() < deadline) {
+            SystemClock.sleep(10);
+            instrumentation.runOnMainSync(new Runnable() {
+                @Override
+                public void run() {
+                    ready[0] = true;
+                    for (int row = 0; row < 2; row++) {
+                        ready[0] &= hasFlag(mDropDownViews[row]) && hasFlag(mValueViews[row]);
+                    }
+                }
+            });
+        }
+        assertTrue("Flags not decoded", ready[0]);
+    }
+
+    private static boolean hasFlag(View view) {
+        Drawable start = ((TextView) view).getCompoundDrawables()[0];
+        return start instanceof BitmapDrawable || start instanceof FlagDrawable;
+    }
+}
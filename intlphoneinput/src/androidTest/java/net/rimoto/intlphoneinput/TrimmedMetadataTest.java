@@ -0,0 +1,66 @@
+package net.rimoto.intlphoneinput;
+
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+
+import com.google.i18n.phonenumbers.NumberParseException;
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.Phonenumber;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * The trimmed metadata build must behave like the full libphonenumber metadata for the kept regions
+ */
+@RunWith(AndroidJUnit4.class)
+public class TrimmedMetadataTest {
+
+    @Test
+    public void keptRegionsBehaveLikeFullMetadata() throws NumberParseException {
+        if (BuildConfig.METADATA_REGIONS.isEmpty()) {
+            return;
+        }
+        PhoneNumberUtil full = PhoneNumberUtil.getInstance();
+        PhoneNumberUtil trimmed = PhoneUtil.get(InstrumentationRegistry.getTargetContext());
+
+        for (String region : BuildConfig.METADATA_REGIONS.split(",")) {
+            assertEquals(full.getCountryCodeForRegion(region), trimmed.getCountryCodeForRegion(region));
+            for (PhoneNumberUtil.PhoneNumberType type : PhoneNumberUtil.PhoneNumberType.values()) {
+                Phonenumber.PhoneNumber example = full.getExampleNumberForType(region, type);
+                if (example == null) {
+                    continue;
+                }
+                assertEquals(example, trimmed.getExampleNumberForType(region, type));
+
+                for (PhoneNumberUtil.PhoneNumberFormat format : PhoneNumberUtil.PhoneNumberFormat.values()) {
+                    String text = full.format(example, format);
+                    assertEquals(text, trimmed.format(example, format));
+
+                    Phonenumber.PhoneNumber expected = full.parse(text, region);
+                    Phonenumber.PhoneNumber actual = trimmed.parse(text, region);
+                    assertEquals(text, expected, actual);
+                    assertEquals(text, full.isValidNumber(expected), trimmed.isValidNumber(actual));
+                    assertEquals(text, full.getNumberType(expected), trimmed.getNumberType(actual));
+                    assertEquals(text, full.getRegionCodeForNumber(expected), trimmed.getRegionCodeForNumber(actual));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void otherRegionsParseButAreNeverValid() throws NumberParseException {
+        if (BuildConfig.METADATA_REGIONS.isEmpty() || BuildConfig.METADATA_REGIONS.contains("US")) {
+            return;
+        }
+        PhoneNumberUtil trimmed = PhoneUtil.get(InstrumentationRegistry.getTargetContext());
+        Phonenumber.PhoneNumber number = trimmed.parse("+1 650-253-0000", "");
+        assertNotNull(number);
+        assertEquals(1, number.getCountryCode());
+        assertFalse(trimmed.isValidNumber(number));
+    }
+}
@@ -0,0 +1,41 @@
+package net.rimoto.intlphoneinput;
+
+import android.content.res.AssetManager;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.google.i18n.phonenumbers.MetadataLoader;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Loads libphonenumber metadata from the assets generated by the trimmed metadata build
+ */
+final class AssetMetadataLoader implements MetadataLoader {
+    private static final String ASSET_DIR = "intlphoneinput/metadata/";
+
+    @NonNull
+    private final AssetManager mAssets;
+
+    AssetMetadataLoader(@NonNull AssetManager assets) {
+        mAssets = assets;
+    }
+
+    /**
+     * Open metadata file
+     *
+     * @param metadataFileName path of the metadata in the libphonenumber jar
+     * @return InputStream | null if missing
+     */
+    @Nullable
+    @Override
+    public InputStream loadMetadata(@NonNull String metadataFileName) {
+        String name = metadataFileName.substring(metadataFileName.lastIndexOf('/') + 1);
+        try {
+            return mAssets.open(ASSET_DIR + name);
+        } catch (IOException ignored) {
+            return null;
+        }
+    }
+}
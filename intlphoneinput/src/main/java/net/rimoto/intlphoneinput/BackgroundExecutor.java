@@ -0,0 +1,31 @@
+package net.rimoto.intlphoneinput;
+
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Shared background thread of the library, used when the app does not provide its own executor
+ */
+final class BackgroundExecutor {
+    @NonNull
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+            Thread thread = new Thread(runnable, "IntlPhoneInput");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private BackgroundExecutor() {
+    }
+
+    @NonNull
+    static Executor get() {
+        return EXECUTOR;
+    }
+}
@@ -0,0 +1,54 @@
+package net.rimoto.intlphoneinput;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.widget.TextView;
+
+import java.util.Locale;
+
+/**
+ * Flag drawables of countries
+ */
+@SuppressWarnings("WeakerAccess")
+public final class CountryFlags {
+
+    private CountryFlags() {
+    }
+
+    /**
+     * Get flag drawable of country.
+     * Countries of the registry are resolved through the build-time generated table; others by resource name.
+     *
+     * @param context Context
+     * @param country Country
+     * @return drawable resource id | 0 if there is no flag
+     */
+    public static int getResId(@NonNull Context context, @NonNull Country country) {
+        int position = Countries.indexOf(country);
+        if (position >= 0) {
+            return FlagResTable.RES_IDS[position];
+        }
+        return context.getResources().getIdentifier("country_" + country.getIso().toLowerCase(Locale.US), "drawable", context.getPackageName());
+    }
+
+    /**
+     * Set flag of country as start drawable. Drawables are decoded asynchronously, see {@link FlagLoader}.
+     *
+     * @param textView TextView of item
+     * @param country  Country of item
+     */
+    static void setFlag(@NonNull TextView textView, @NonNull Country country) {
+        Context context = textView.getContext();
+        if (BuildConfig.FLAG_ATLAS) {
+            textView.setCompoundDrawablesWithIntrinsicBounds(FlagAtlas.getDrawable(context, country), null, null, null);
+            return;
+        }
+        int resId = getResId(context, country);
+        if (resId != 0) {
+            FlagLoader.load(textView, country, resId);
+        } else {
+            FlagLoader.cancel(textView);
+            textView.setCompoundDrawablesWithIntrinsicBounds(0, 0, 0, 0);
+        }
+    }
+}
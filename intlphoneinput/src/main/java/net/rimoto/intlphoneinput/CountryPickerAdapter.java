@@ -0,0 +1,175 @@
+package net.rimoto.intlphoneinput;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+/**
+ * Rows of the searchable country picker. Filtering writes the matching positions into arrays allocated
+ * once for the whole registry and keeps the offered countries in their order. The search index is never
+ * built on the main thread: until it is, the rows stay as they are.
+ */
+final class CountryPickerAdapter extends RecyclerView.Adapter<CountryPickerAdapter.ViewHolder> {
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+
+    @NonNull
+    private final CountryList mCountries;
+    @NonNull
+    private final OnCountryClickListener mListener;
+    /**
+     * Positions in {@link Countries#COUNTRIES} of the shown rows, first mCount are valid
+     */
+    @NonNull
+    private final int[] mPositions = new int[Countries.COUNTRIES.size()];
+    private int mCount;
+    /**
+     * Search results in registry order
+     */
+    @NonNull
+    private final int[] mMatches = new int[Countries.COUNTRIES.size()];
+    /**
+     * Search results as flags by position, all false between searches
+     */
+    @NonNull
+    private final boolean[] mMatched = new boolean[Countries.COUNTRIES.size()];
+    @NonNull
+    private String mQuery = "";
+    private boolean mBuildingIndex;
+
+    CountryPickerAdapter(@NonNull CountryList countries, @NonNull OnCountryClickListener listener) {
+        mCountries = countries;
+        mListener = listener;
+        setHasStableIds(true);
+        showAll();
+    }
+
+    /**
+     * Show the offered countries matching query, in their order
+     *
+     * @param query search text
+     */
+    void filter(@NonNull CharSequence query) {
+        mQuery = query.toString();
+        if (mQuery.trim().isEmpty()) {
+            showAll();
+            notifyDataSetChanged();
+            return;
+        }
+        CountrySearchIndex index = CountrySearchIndex.peekDefault();
+        if (index == null) {
+            buildIndex();
+            return;
+        }
+        int count = index.search(mQuery, mMatches);
+        for (int i = 0; i < count; i++) {
+            mMatched[mMatches[i]] = true;
+        }
+        mCount = 0;
+        for (int i = 0, size = mCountries.size(); i < size; i++) {
+            int position = mCountries.getTablePosition(i);
+            if (mMatched[position]) {
+                mPositions[mCount++] = position;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            mMatched[mMatches[i]] = false;
+        }
+        notifyDataSetChanged();
+    }
+
+    /**
+     * Build the search index in the background (first search, or the display locale changed), then filter again
+     */
+    private void buildIndex() {
+        if (mBuildingIndex) {
+            return;
+        }
+        mBuildingIndex = true;
+        BackgroundExecutor.get().execute(new Runnable() {
+            @Override
+            public void run() {
+                CountrySearchIndex.getDefault();
+                sMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        mBuildingIndex = false;
+                        filter(mQuery);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Show the offered countries in their order
+     */
+    private void showAll() {
+        mCount = mCountries.size();
+        for (int i = 0; i < mCount; i++) {
+            mPositions[i] = mCountries.getTablePosition(i);
+        }
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_country_search, parent, false);
+        final ViewHolder holder = new ViewHolder(view);
+        view.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                int adapterPosition = holder.getAdapterPosition();
+                if (adapterPosition != RecyclerView.NO_POSITION && adapterPosition < mCount) {
+                    mListener.onCountryClick(mPositions[adapterPosition]);
+                }
+            }
+        });
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        IntlPhoneInputMetrics.Listener metrics = IntlPhoneInputMetrics.get();
+        long start = metrics != null ? System.nanoTime() : 0;
+        Country country = Countries.COUNTRIES.get(mPositions[position]);
+        holder.mName.setText(CountryLabels.getItemLabel(country));
+        CountryFlags.setFlag(holder.mName, country);
+        if (metrics != null) {
+            metrics.onAdapterBind(true, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return mPositions[position];
+    }
+
+    @Override
+    public int getItemCount() {
+        return mCount;
+    }
+
+    static final class ViewHolder extends RecyclerView.ViewHolder {
+        @NonNull
+        final TextView mName;
+
+        ViewHolder(@NonNull View itemView) {
+            super(itemView);
+            mName = (TextView) itemView;
+        }
+    }
+
+    interface OnCountryClickListener {
+        /**
+         * A country was clicked
+         *
+         * @param position position in {@link Countries#COUNTRIES}
+         */
+        void onCountryClick(int position);
+    }
+}
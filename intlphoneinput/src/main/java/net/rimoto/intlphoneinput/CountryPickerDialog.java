@@ -0,0 +1,90 @@
+package net.rimoto.intlphoneinput;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.app.AppCompatDialog;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.view.ViewGroup;
+import android.view.Window;
+import android.widget.EditText;
+
+/**
+ * Searchable country picker, see {@link IntlPhoneInput#PICKER_SEARCH}
+ */
+final class CountryPickerDialog extends AppCompatDialog {
+    @Nullable
+    private final CharSequence mTitle;
+    @NonNull
+    private final CountryList mCountries;
+    @NonNull
+    private final CountryPickerAdapter.OnCountryClickListener mListener;
+
+    /**
+     * Constructor
+     *
+     * @param context  Context
+     * @param title     dialog title | null if none
+     * @param countries offered countries
+     * @param listener  receives the picked country, the dialog is dismissed
+     */
+    CountryPickerDialog(@NonNull Context context, @Nullable CharSequence title, @NonNull CountryList countries,
+                        @NonNull CountryPickerAdapter.OnCountryClickListener listener) {
+        super(context);
+        mTitle = title;
+        mCountries = countries;
+        mListener = listener;
+    }
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.dialog_country_picker);
+        setTitle(mTitle);
+
+        final CountryPickerAdapter adapter = new CountryPickerAdapter(mCountries, new CountryPickerAdapter.OnCountryClickListener() {
+            @Override
+            public void onCountryClick(int position) {
+                dismiss();
+                mListener.onCountryClick(position);
+            }
+        });
+        RecyclerView list = findViewById(R.id.intl_phone_edit__picker__list);
+        if (list != null) {
+            list.setLayoutManager(new LinearLayoutManager(getContext()));
+            list.setHasFixedSize(true);
+            list.setAdapter(adapter);
+        }
+
+        EditText query = findViewById(R.id.intl_phone_edit__picker__query);
+        if (query != null) {
+            query.addTextChangedListener(new TextWatcher() {
+                @Override
+                public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+                }
+
+                @Override
+                public void onTextChanged(CharSequence s, int start, int before, int count) {
+                    adapter.filter(s);
+                }
+
+                @Override
+                public void afterTextChanged(Editable s) {
+                }
+            });
+        }
+    }
+
+    @Override
+    protected void onStart() {
+        super.onStart();
+        Window window = getWindow();
+        if (window != null) {
+            window.setLayout(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
+        }
+    }
+}
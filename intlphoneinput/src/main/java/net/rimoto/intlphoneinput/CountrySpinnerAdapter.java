@@ -1,6 +1,5 @@
 package net.rimoto.intlphoneinput;
 
-import android.annotation.SuppressLint;
 import android.content.Context;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
@@ -38,14 +37,14 @@ public class CountrySpinnerAdapter extends ArrayAdapter<Country> {
     @Override
     @NonNull
     public View getDropDownView(int position, @Nullable View convertView, @NonNull ViewGroup parent) {
+        IntlPhoneInputMetrics.Listener metrics = IntlPhoneInputMetrics.get();
+        long start = metrics != null ? System.nanoTime() : 0;
         if (convertView == null) {
-            convertView = mLayoutInflater.inflate(R.layout.item_country, parent, false);
+            convertView = createView(R.layout.item_country, parent);
         }
-        Country country = getItem(position);
-        if (country != null) {
-            TextView textView = (TextView) convertView;
-            textView.setText(String.format("%s (+%s)", country.getName(), country.getDialCode()));
-            textView.setCompoundDrawablesWithIntrinsicBounds(country.getResId(getContext()), 0, 0, 0);
+        bind((ViewHolder) convertView.getTag(), getItem(position), true);
+        if (metrics != null) {
+            metrics.onAdapterBind(true, System.nanoTime() - start);
         }
         return convertView;
     }
@@ -58,19 +57,55 @@ public class CountrySpinnerAdapter extends ArrayAdapter<Country> {
      * @param parent      parent of selected view
      * @return convertView
      */
-    @SuppressLint("DefaultLocale")
     @NonNull
     @Override
     public View getView(int position, @Nullable View convertView, @NonNull ViewGroup parent) {
+        IntlPhoneInputMetrics.Listener metrics = IntlPhoneInputMetrics.get();
+        long start = metrics != null ? System.nanoTime() : 0;
         if (convertView == null) {
-            convertView = mLayoutInflater.inflate(R.layout.spinner_value, parent, false);
+            convertView = createView(R.layout.spinner_value, parent);
         }
-        Country country = getItem(position);
-        if (country != null) {
-            TextView textView = (TextView) convertView;
-            textView.setText(String.format("+%d", country.getDialCode()));
-            textView.setCompoundDrawablesWithIntrinsicBounds(country.getResId(getContext()), 0, 0, 0);
+        bind((ViewHolder) convertView.getTag(), getItem(position), false);
+        if (metrics != null) {
+            metrics.onAdapterBind(false, System.nanoTime() - start);
         }
         return convertView;
     }
+
+    @NonNull
+    private View createView(int layout, @NonNull ViewGroup parent) {
+        View view = mLayoutInflater.inflate(layout, parent, false);
+        view.setTag(new ViewHolder((TextView) view));
+        return view;
+    }
+
+    /**
+     * Bind country to the row, nothing to do if it already shows it
+     *
+     * @param holder   ViewHolder of the row
+     * @param country  Country | null
+     * @param dropDown true for a dropdown row, false for the selected value
+     */
+    private void bind(@NonNull ViewHolder holder, @Nullable Country country, boolean dropDown) {
+        if (country == null || country == holder.mCountry) {
+            return;
+        }
+        holder.mCountry = country;
+        holder.mTextView.setText(dropDown ? CountryLabels.getItemLabel(country) : CountryLabels.getValueLabel(country));
+        CountryFlags.setFlag(holder.mTextView, country);
+    }
+
+    /**
+     * Views of a row and the country they show, kept as the row tag
+     */
+    private static final class ViewHolder {
+        @NonNull
+        final TextView mTextView;
+        @Nullable
+        Country mCountry;
+
+        ViewHolder(@NonNull TextView textView) {
+            mTextView = textView;
+        }
+    }
 }
@@ -0,0 +1,94 @@
+package net.rimoto.intlphoneinput;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Flags packed at build time into a single sprite sheet (flag atlas mode, see {@link BuildConfig#FLAG_ATLAS}).
+ * The sheet is decoded once per process and shared by every {@link FlagDrawable}, itself built once per country
+ * and shared by the rows showing it.
+ */
+final class FlagAtlas {
+    private static final int RECT_SIZE = 5;
+
+    @Nullable
+    private static Bitmap sAtlas;
+
+    /**
+     * Flag drawables by country position, for sDensityDpi; main thread only
+     */
+    @Nullable
+    private static FlagDrawable[] sDrawables;
+    private static int sDensityDpi;
+
+    private FlagAtlas() {
+    }
+
+    /**
+     * Get flag drawable of country, call on the main thread
+     *
+     * @param context Context
+     * @param country Country
+     * @return Drawable | null if the country has no flag
+     */
+    @Nullable
+    static Drawable getDrawable(@NonNull Context context, @NonNull Country country) {
+        int position = Countries.indexOf(country);
+        int offset = position * RECT_SIZE;
+        int[] rects = FlagAtlasTable.RECTS;
+        if (position < 0 || offset >= rects.length) {
+            // Not a registry country, or not built in flag atlas mode
+            return null;
+        }
+        int densityDpi = context.getResources().getDisplayMetrics().densityDpi;
+        if (sDrawables == null || sDensityDpi != densityDpi) {
+            sDrawables = new FlagDrawable[rects.length / RECT_SIZE];
+            sDensityDpi = densityDpi;
+        }
+        FlagDrawable drawable = sDrawables[position];
+        if (drawable != null) {
+            return drawable;
+        }
+
+        int left = rects[offset];
+        int top = rects[offset + 1];
+        int width = rects[offset + 2];
+        int height = rects[offset + 3];
+        if (width == 0) {
+            return null;
+        }
+        Bitmap atlas = getAtlas(context);
+        if (atlas == null) {
+            return null;
+        }
+        float scale = densityDpi / (float) rects[offset + 4];
+        drawable = new FlagDrawable(atlas, new Rect(left, top, left + width, top + height),
+                Math.round(width * scale), Math.round(height * scale));
+        sDrawables[position] = drawable;
+        return drawable;
+    }
+
+    @Nullable
+    private static synchronized Bitmap getAtlas(@NonNull Context context) {
+        if (sAtlas == null) {
+            try {
+                InputStream in = context.getAssets().open(FlagAtlasTable.ASSET);
+                try {
+                    sAtlas = BitmapFactory.decodeStream(in);
+                } finally {
+                    in.close();
+                }
+            } catch (IOException ignored) {
+            }
+        }
+        return sAtlas;
+    }
+}
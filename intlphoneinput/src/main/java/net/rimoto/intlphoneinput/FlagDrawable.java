@@ -0,0 +1,73 @@
+package net.rimoto.intlphoneinput;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.Paint;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Draws one flag out of the shared flag atlas bitmap
+ */
+@SuppressWarnings("WeakerAccess")
+public class FlagDrawable extends Drawable {
+    @NonNull
+    private final Bitmap mAtlas;
+    @NonNull
+    private final Rect mSource;
+    @NonNull
+    private final Paint mPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final int mWidth;
+    private final int mHeight;
+
+    /**
+     * Constructor
+     *
+     * @param atlas  shared atlas bitmap
+     * @param source rectangle of the flag inside the atlas
+     * @param width  intrinsic width in pixels
+     * @param height intrinsic height in pixels
+     */
+    public FlagDrawable(@NonNull Bitmap atlas, @NonNull Rect source, int width, int height) {
+        mAtlas = atlas;
+        mSource = source;
+        mWidth = width;
+        mHeight = height;
+    }
+
+    @Override
+    public void draw(@NonNull Canvas canvas) {
+        canvas.drawBitmap(mAtlas, mSource, getBounds(), mPaint);
+    }
+
+    @Override
+    public void setAlpha(int alpha) {
+        mPaint.setAlpha(alpha);
+        invalidateSelf();
+    }
+
+    @Override
+    public void setColorFilter(@Nullable ColorFilter colorFilter) {
+        mPaint.setColorFilter(colorFilter);
+        invalidateSelf();
+    }
+
+    @Override
+    public int getOpacity() {
+        return PixelFormat.TRANSLUCENT;
+    }
+
+    @Override
+    public int getIntrinsicWidth() {
+        return mWidth;
+    }
+
+    @Override
+    public int getIntrinsicHeight() {
+        return mHeight;
+    }
+}
@@ -0,0 +1,174 @@
+package net.rimoto.intlphoneinput;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.drawable.BitmapDrawable;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.LruCache;
+import android.util.SparseArray;
+import android.widget.TextView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Decodes flag drawables on a few threads of their own, downsampled to the row flag height, into a
+ * process-wide cache shared by every IntlPhoneInput. Rows show a placeholder until their flag is ready.
+ * Cached drawables are shared by the rows showing the same country: they are static bitmaps, so
+ * binding a row to a cached flag allocates nothing.
+ */
+final class FlagLoader {
+    private static final int MAX_CACHE_BYTES = 4 * 1024 * 1024;
+    private static final int DECODE_THREADS = 2;
+
+    @NonNull
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Decode threads, apart from {@link BackgroundExecutor} so that a fling does not hold back validation
+     */
+    @NonNull
+    private static final ExecutorService DECODER = Executors.newFixedThreadPool(DECODE_THREADS, new ThreadFactory() {
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+            Thread thread = new Thread(runnable, "IntlPhoneInput-Flags");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    /**
+     * Rows waiting for a flag by drawable resource id, each resource id is decoded once at a time; main thread only
+     */
+    @NonNull
+    private static final SparseArray<List<TextView>> sPending = new SparseArray<>();
+
+    /**
+     * Flag drawables by country, registry countries are found by identity
+     */
+    @NonNull
+    private static final LruCache<Country, BitmapDrawable> sCache = new LruCache<Country, BitmapDrawable>(
+            (int) Math.min(MAX_CACHE_BYTES, Runtime.getRuntime().maxMemory() / 32)) {
+        @Override
+        protected int sizeOf(Country country, BitmapDrawable drawable) {
+            return drawable.getBitmap().getByteCount();
+        }
+    };
+
+    private FlagLoader() {
+    }
+
+    /**
+     * Set flag drawable as start drawable of textView, now if cached, else once decoded.
+     * The row is tagged with the country it shows, so a flag decoded after the row was rebound is dropped.
+     *
+     * @param textView TextView of the row
+     * @param country  Country of the row
+     * @param resId    flag drawable resource id of country
+     */
+    static void load(@NonNull TextView textView, @NonNull final Country country, final int resId) {
+        textView.setTag(R.id.intl_phone_edit__flag, country);
+        BitmapDrawable cached = sCache.get(country);
+        if (cached != null) {
+            textView.setCompoundDrawablesWithIntrinsicBounds(cached, null, null, null);
+            return;
+        }
+        textView.setCompoundDrawablesWithIntrinsicBounds(R.drawable.country_placeholder, 0, 0, 0);
+
+        List<TextView> rows = sPending.get(resId);
+        if (rows != null) {
+            // Already decoding
+            if (!rows.contains(textView)) {
+                rows.add(textView);
+            }
+            return;
+        }
+        rows = new ArrayList<>();
+        rows.add(textView);
+        sPending.put(resId, rows);
+
+        final Resources resources = textView.getResources();
+        final int height = resources.getDimensionPixelSize(R.dimen.flag_height);
+        DECODER.execute(new Runnable() {
+            @Override
+            public void run() {
+                Bitmap bitmap = decode(resources, resId, height);
+                final BitmapDrawable drawable = bitmap != null ? new BitmapDrawable(resources, bitmap) : null;
+                if (drawable != null) {
+                    sCache.put(country, drawable);
+                }
+                sMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        List<TextView> rows = sPending.get(resId);
+                        sPending.remove(resId);
+                        if (drawable == null || rows == null) {
+                            return;
+                        }
+                        for (TextView row : rows) {
+                            // The row may have been rebound to another country meanwhile
+                            if (row.getTag(R.id.intl_phone_edit__flag) == country) {
+                                row.setCompoundDrawablesWithIntrinsicBounds(drawable, null, null, null);
+                            }
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Forget the pending flag of a row, i.e. when it gets no flag
+     *
+     * @param textView TextView of the row
+     */
+    static void cancel(@NonNull TextView textView) {
+        textView.setTag(R.id.intl_phone_edit__flag, null);
+    }
+
+    /**
+     * Decode with the largest power of two subsampling that keeps at least height, then scale to height exactly
+     *
+     * @return Bitmap | null on error
+     */
+    @Nullable
+    private static Bitmap decode(@NonNull Resources resources, int resId, int height) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inScaled = false;
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeResource(resources, resId, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            return null;
+        }
+
+        int sampleSize = 1;
+        while (options.outHeight / (sampleSize * 2) >= height) {
+            sampleSize *= 2;
+        }
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = sampleSize;
+        Bitmap decoded = BitmapFactory.decodeResource(resources, resId, options);
+        if (decoded == null) {
+            return null;
+        }
+
+        int width = Math.max(1, Math.round((float) decoded.getWidth() * height / decoded.getHeight()));
+        Bitmap bitmap = decoded;
+        if (decoded.getWidth() != width || decoded.getHeight() != height) {
+            bitmap = Bitmap.createScaledBitmap(decoded, width, height, true);
+            if (bitmap != decoded) {
+                decoded.recycle();
+            }
+        }
+        // Pixels are already at display size, no density scaling when drawn
+        bitmap.setDensity(resources.getDisplayMetrics().densityDpi);
+        return bitmap;
+    }
+}
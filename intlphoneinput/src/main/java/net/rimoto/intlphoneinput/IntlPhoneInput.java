@@ -1,15 +1,21 @@
 package net.rimoto.intlphoneinput;
 
 import android.annotation.SuppressLint;
-import android.annotation.TargetApi;
 import android.content.Context;
+import android.content.res.Configuration;
 import android.content.res.TypedArray;
 import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Parcel;
+import android.os.Parcelable;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.design.widget.TextInputLayout;
-import android.telephony.PhoneNumberFormattingTextWatcher;
 import android.telephony.TelephonyManager;
+import android.text.Editable;
+import android.text.Selection;
+import android.text.TextWatcher;
 import android.util.AttributeSet;
 import android.util.TypedValue;
 import android.view.KeyEvent;
@@ -24,11 +30,17 @@ import android.widget.RelativeLayout;
 import android.widget.Spinner;
 import android.widget.TextView;
 
-import com.google.i18n.phonenumbers.NumberParseException;
-import com.google.i18n.phonenumbers.PhoneNumberUtil;
 import com.google.i18n.phonenumbers.Phonenumber;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executor;
 
 @SuppressWarnings({"unused", "WeakerAccess", "NullableProblems"})
 public class IntlPhoneInput extends RelativeLayout {
@@ -37,6 +49,22 @@ public class IntlPhoneInput extends RelativeLayout {
 
     public static final int COUNTRY_ID = 0;
 
+    /**
+     * Default quiet period before an async validation starts, in milliseconds
+     */
+    public static final long DEFAULT_VALIDATION_DEBOUNCE = 150;
+
+    /**
+     * Default time the device number lookup may take before the prefill is given up, in milliseconds
+     */
+    public static final long DEFAULT_PREFILL_TIMEOUT = 1000;
+
+    /**
+     * Country picker modes: the spinner dropdown, or a dialog searching names, ISO and dial codes
+     */
+    public static final int PICKER_SPINNER = 0;
+    public static final int PICKER_SEARCH = 1;
+
     // UI Views
     @NonNull
     private Spinner mCountrySpinner;
@@ -49,17 +77,94 @@ public class IntlPhoneInput extends RelativeLayout {
     @NonNull
     private CountrySpinnerAdapter mCountrySpinnerAdapter;
     @NonNull
-    private PhoneNumberWatcher mPhoneNumberWatcher = new PhoneNumberWatcher(DEFAULT_COUNTRY);
+    private PhoneNumberWatcher mPhoneNumberWatcher;
 
-    //Util
+    //Engine
     @NonNull
-    private PhoneNumberUtil mPhoneUtil = PhoneNumberUtil.getInstance();
+    private PhoneNumberEngine mEngine;
 
     // Fields
+    /**
+     * Countries of the picker, a view of the shared registry
+     */
+    @NonNull
+    private CountryList mCountries = CountryList.all();
     @Nullable
     private Country mSelectedCountry;
     @Nullable
     private IntlPhoneInputListener mIntlPhoneInputListener;
+    @Nullable
+    private PhoneNumberState mNumberState;
+    private boolean mLastValidity;
+    /**
+     * Parses of the number state so far, for {@link IntlPhoneInputMetrics}
+     */
+    private int mParseCount;
+
+    // Async validation
+    @NonNull
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    @Nullable
+    private Executor mValidationExecutor;
+    private boolean mAsyncValidation;
+    private long mValidationDebounce = DEFAULT_VALIDATION_DEBOUNCE;
+    /**
+     * Incremented on every edit, results of older validations are dropped
+     */
+    private volatile int mValidationGeneration;
+    @Nullable
+    private Runnable mPendingValidation;
+
+    private int mPickerMode = PICKER_SPINNER;
+
+    // Recycled row mode
+    /**
+     * Adapters shared by the recycled rows, by context and country list. Weak values: an adapter references its context.
+     */
+    @NonNull
+    private static final Map<Context, Map<CountryList, WeakReference<CountrySpinnerAdapter>>> sSharedAdapters = new WeakHashMap<>();
+    private boolean mRecycledRow;
+    /**
+     * State of the last bound number, reused when a row is bound to it again
+     */
+    @Nullable
+    private PhoneNumberState mBoundState;
+
+    // Device prefill
+    /**
+     * True until the device lookup has been started, it runs once the view is attached
+     */
+    private boolean mPrefillPending;
+    private long mPrefillTimeout = DEFAULT_PREFILL_TIMEOUT;
+    /**
+     * Incremented when a lookup is given up, its result is then dropped
+     */
+    private volatile int mPrefillGeneration;
+    /**
+     * Timeout of the running lookup, null if none runs
+     */
+    @Nullable
+    private Runnable mPrefillTimeoutCallback;
+    /**
+     * True if the country comes from the defaultCountry attribute, the network country does not override it
+     */
+    private boolean mDefaultCountrySet;
+
+    // Number state events
+    @NonNull
+    private final List<PhoneNumberEventStream> mEventStreams = new ArrayList<>();
+    @NonNull
+    private final PhoneNumberEventStream.Scheduler mEventScheduler = new PhoneNumberEventStream.Scheduler() {
+        @Override
+        public void schedule(@NonNull Runnable runnable, long delay) {
+            mMainHandler.postDelayed(runnable, delay);
+        }
+
+        @Override
+        public void cancel(@NonNull Runnable runnable) {
+            mMainHandler.removeCallbacks(runnable);
+        }
+    };
 
     /**
      * Constructor
@@ -90,11 +195,24 @@ public class IntlPhoneInput extends RelativeLayout {
      * Init after constructor
      */
     private void init(@Nullable AttributeSet attrs) {
+        mEngine = PhoneUtil.getEngine(getContext());
+        mPhoneNumberWatcher = new PhoneNumberWatcher(DEFAULT_COUNTRY);
+        CountryDisplayNames.setLocale(getLocale(getResources().getConfiguration()));
+        TypedArray a = attrs != null ? getContext().obtainStyledAttributes(attrs, R.styleable.IntlPhoneInput) : null;
+        mRecycledRow = a != null && a.getBoolean(R.styleable.IntlPhoneInput_recycledRow, false);
+        // Rows get their number through bind(), no device lookup
+        mPrefillPending = !mRecycledRow && !isInEditMode()
+                && (a == null || a.getBoolean(R.styleable.IntlPhoneInput_prefillFromDevice, true));
+        String countries = a != null ? a.getString(R.styleable.IntlPhoneInput_countries) : null;
+        if (countries != null && !countries.trim().isEmpty()) {
+            mCountries = CountryList.all().only(Arrays.asList(countries.trim().split("\\s*,\\s*")));
+        }
+
         /*
          * Country spinner
          */
         mCountrySpinner = findViewById(R.id.intl_phone_edit__country);
-        mCountrySpinnerAdapter = new CountrySpinnerAdapter(getContext(), Countries.COUNTRIES);
+        mCountrySpinnerAdapter = createAdapter();
         mCountrySpinner.setAdapter(mCountrySpinnerAdapter);
 
         mCountrySpinner.setOnItemSelectedListener(mCountrySpinnerListener);
@@ -104,11 +222,17 @@ public class IntlPhoneInput extends RelativeLayout {
             @Override
             public boolean onTouch(View v, MotionEvent event) {
                 hideKeyboard();
+                if (mPickerMode == PICKER_SEARCH) {
+                    if (event.getAction() == MotionEvent.ACTION_UP) {
+                        showCountryPicker();
+                    }
+                    return true;
+                }
                 return false;
             }
         });
 
-        setFlagDefaults(attrs);
+        setFlagDefaults(a);
 
         /*
          * Phone text field
@@ -117,42 +241,71 @@ public class IntlPhoneInput extends RelativeLayout {
         mPhoneEdit.addTextChangedListener(mPhoneNumberWatcher);
         mTextInputLayout = findViewById(R.id.intl_phone_edit__til);
 
-        setDefault();
-        setEditTextDefaults(attrs);
+        // The device number is looked up in the background once attached, see startPrefill()
+        setEmptyDefault();
+        setEditTextDefaults(a);
+        if (a != null) {
+            a.recycle();
+        }
+    }
+
+    @NonNull
+    private CountrySpinnerAdapter createAdapter() {
+        return mRecycledRow ? getSharedAdapter(getContext(), mCountries) : new CountrySpinnerAdapter(getContext(), mCountries);
+    }
+
+    /**
+     * Get the adapter shared by the recycled rows of a context
+     *
+     * @param context   Context
+     * @param countries CountryList of the rows
+     * @return CountrySpinnerAdapter
+     */
+    @NonNull
+    private static CountrySpinnerAdapter getSharedAdapter(@NonNull Context context, @NonNull CountryList countries) {
+        Map<CountryList, WeakReference<CountrySpinnerAdapter>> adapters = sSharedAdapters.get(context);
+        if (adapters == null) {
+            adapters = new HashMap<>();
+            sSharedAdapters.put(context, adapters);
+        }
+        WeakReference<CountrySpinnerAdapter> reference = adapters.get(countries);
+        CountrySpinnerAdapter adapter = reference != null ? reference.get() : null;
+        if (adapter == null) {
+            adapter = new CountrySpinnerAdapter(context, countries);
+            adapters.put(countries, new WeakReference<>(adapter));
+        }
+        return adapter;
     }
 
-    private void setFlagDefaults(@Nullable AttributeSet attrs) {
-        if (attrs == null) {
+    private void setFlagDefaults(@Nullable TypedArray a) {
+        if (a == null) {
             return;
         }
-        TypedArray a = getContext().obtainStyledAttributes(attrs, R.styleable.IntlPhoneInput);
         ViewGroup.LayoutParams layoutParams = mCountrySpinner.getLayoutParams();
         layoutParams.width = a.getDimensionPixelSize(R.styleable.IntlPhoneInput_spinnerWidth, getResources().getDimensionPixelSize(R.dimen.spinner_width));
         mCountrySpinner.setLayoutParams(layoutParams);
         mCountrySpinner.setPrompt(a.getString(R.styleable.IntlPhoneInput_prompt));
-        if (Countries.COUNTRIES.size() <= 1) {
+        if (mCountries.size() <= 1) {
             mCountrySpinner.setEnabled(false);
         }
-        a.recycle();
     }
 
-    private void setEditTextDefaults(@Nullable AttributeSet attrs) {
-        if (attrs == null) {
+    private void setEditTextDefaults(@Nullable TypedArray a) {
+        if (a == null) {
             return;
         }
-        TypedArray a = getContext().obtainStyledAttributes(attrs, R.styleable.IntlPhoneInput);
-
-        if (Countries.COUNTRIES.size() > 1) {
+        mAsyncValidation = a.getBoolean(R.styleable.IntlPhoneInput_asyncValidation, false);
+        setPickerMode(a.getInt(R.styleable.IntlPhoneInput_pickerMode, PICKER_SPINNER));
+        if (mCountries.size() > 1) {
             int defaultCountry = a.getInteger(R.styleable.IntlPhoneInput_defaultCountry, -1);
-            if (defaultCountry >= 0) {
-                switch (defaultCountry) {
-                    case COUNTRY_ID:
-                        setEmptyDefault("id");
-                        break;
-                }
+            String iso = getDefaultCountryIso(defaultCountry);
+            if (iso != null) {
+                setEmptyDefault(iso);
+                mDefaultCountrySet = true;
             }
-        } else if (Countries.COUNTRIES.size() == 1) {
-            setEmptyDefault(Countries.COUNTRIES.get(0).getIso().toLowerCase());
+        } else if (mCountries.size() == 1) {
+            setEmptyDefault(mCountries.get(0).getIso().toLowerCase());
+            mDefaultCountrySet = true;
         }
 
         int textSize = a.getDimensionPixelSize(R.styleable.IntlPhoneInput_textSize, getResources().getDimensionPixelSize(R.dimen.text_size_default));
@@ -173,7 +326,22 @@ public class IntlPhoneInput extends RelativeLayout {
             int resourceId = a.getResourceId(R.styleable.IntlPhoneInput_hintTextAppearance, 0);
             mTextInputLayout.setHintTextAppearance(resourceId);
         }
-        a.recycle();
+    }
+
+    /**
+     * Get ISO2 of a {@code defaultCountry} attribute value
+     *
+     * @param defaultCountry attribute value, like {@link #COUNTRY_ID}
+     * @return String | null if unknown
+     */
+    @Nullable
+    static String getDefaultCountryIso(int defaultCountry) {
+        switch (defaultCountry) {
+            case COUNTRY_ID:
+                return "id";
+            default:
+                return null;
+        }
     }
 
     /**
@@ -188,9 +356,11 @@ public class IntlPhoneInput extends RelativeLayout {
 
     /**
      * Set default value
-     * Will try to retrieve phone number from device
+     * Will try to retrieve phone number from device, blocking on TelephonyManager.
+     * The view does this in the background by itself once attached, see {@link #setPrefillFromDevice(boolean)}.
      */
     public void setDefault() {
+        stopPrefill(false);
         try {
             TelephonyManager telephonyManager = (TelephonyManager) getContext().getSystemService(Context.TELEPHONY_SERVICE);
             if (telephonyManager != null) {
@@ -217,24 +387,23 @@ public class IntlPhoneInput extends RelativeLayout {
         if (iso == null || iso.isEmpty()) {
             iso = DEFAULT_COUNTRY;
         }
-        for (int i = 0; i < Countries.COUNTRIES.size(); i++) {
-            Country country = Countries.COUNTRIES.get(i);
-            if (country.getIso().toUpperCase().equals(iso.toUpperCase())) {
-                mSelectedCountry = country;
-                mCountrySpinner.setSelection(i);
-                break;
-            }
+        int position = mCountries.indexOfIso(iso);
+        if (position < 0 && mCountries.indexOf(mSelectedCountry) < 0 && !mCountries.isEmpty()) {
+            // The country is not offered, the first one stands in
+            position = 0;
         }
+        selectCountryAt(position);
     }
 
-    private void selectCountry(int dialCode) {
-        for (int i = 0; i < Countries.COUNTRIES.size(); i++) {
-            Country country = Countries.COUNTRIES.get(i);
-            if (country.getDialCode() == dialCode) {
-                mSelectedCountry = country;
-                mCountrySpinner.setSelection(i);
-                break;
-            }
+    /**
+     * Select country
+     *
+     * @param position index in {@link #mCountries} | -1 to keep the selection
+     */
+    private void selectCountryAt(int position) {
+        if (position >= 0) {
+            mSelectedCountry = mCountries.get(position);
+            mCountrySpinner.setSelection(position);
         }
     }
 
@@ -246,15 +415,20 @@ public class IntlPhoneInput extends RelativeLayout {
     }
 
     /**
-     * Set hint number for country
+     * Set hint number for country, precomputed in the country table
      */
     private void setHint() {
+        IntlPhoneInputMetrics.Listener metrics = IntlPhoneInputMetrics.get();
+        long start = metrics != null ? System.nanoTime() : 0;
         if (mSelectedCountry != null) {
-            Phonenumber.PhoneNumber phoneNumber = mPhoneUtil.getExampleNumberForType(mSelectedCountry.getIso(), PhoneNumberUtil.PhoneNumberType.MOBILE);
-            if (phoneNumber != null) {
-                mPhoneEdit.setHint(mPhoneUtil.format(phoneNumber, PhoneNumberUtil.PhoneNumberFormat.NATIONAL));
+            String exampleNumber = Countries.getExampleNumber(mSelectedCountry);
+            if (exampleNumber != null) {
+                mPhoneEdit.setHint(exampleNumber);
             }
         }
+        if (metrics != null) {
+            metrics.onHint(System.nanoTime() - start);
+        }
     }
 
     /**
@@ -282,19 +456,24 @@ public class IntlPhoneInput extends RelativeLayout {
     private AdapterView.OnItemSelectedListener mCountrySpinnerListener = new AdapterView.OnItemSelectedListener() {
         @Override
         public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+            IntlPhoneInputMetrics.Listener metrics = IntlPhoneInputMetrics.get();
+            long start = metrics != null ? System.nanoTime() : 0;
             mSelectedCountry = mCountrySpinnerAdapter.getItem(position);
 
-            //Make sure that the watcher is added into the listeners of the edittext
-            //after updating the country selected...
-            mPhoneEdit.removeTextChangedListener(mPhoneNumberWatcher);
-            if (mSelectedCountry != null) {
-                mPhoneNumberWatcher = new PhoneNumberWatcher(mSelectedCountry.getIso());
-            } else {
-                mPhoneNumberWatcher = new PhoneNumberWatcher();
-            }
-            mPhoneEdit.addTextChangedListener(mPhoneNumberWatcher);
+            mPhoneNumberWatcher.setRegion(mSelectedCountry != null ? mSelectedCountry.getIso() : null);
 
             setHint();
+            if (!mEventStreams.isEmpty() && mPhoneEdit.length() > 0) {
+                // The text now parses for another region
+                if (mAsyncValidation) {
+                    scheduleValidation(mPhoneEdit.getText().toString());
+                } else {
+                    publishNumberState(getNumberState());
+                }
+            }
+            if (metrics != null) {
+                metrics.onCountrySwitch(System.nanoTime() - start);
+            }
         }
 
         @Override
@@ -304,54 +483,642 @@ public class IntlPhoneInput extends RelativeLayout {
     };
 
     /**
-     * Phone number watcher
+     * Phone number watcher: formats as you type, then parses and validates the text once
      */
-    private class PhoneNumberWatcher extends PhoneNumberFormattingTextWatcher {
-        private boolean lastValidity;
+    private class PhoneNumberWatcher implements TextWatcher {
+        @NonNull
+        private final PhoneNumberFormatter mFormatter;
+        private boolean mSelfChange;
+
+        PhoneNumberWatcher(@Nullable String region) {
+            mFormatter = new PhoneNumberFormatter(mEngine.getPhoneUtil(), region);
+        }
 
-        public PhoneNumberWatcher() {
-            super();
+        /**
+         * Format for another region from the next edit on
+         *
+         * @param region ISO2 | null if none
+         */
+        void setRegion(@Nullable String region) {
+            mFormatter.setRegion(region);
         }
 
-        @TargetApi(Build.VERSION_CODES.LOLLIPOP)
-        public PhoneNumberWatcher(@NonNull String countryCode) {
-            super(countryCode);
+        @Override
+        public void beforeTextChanged(CharSequence s, int start, int count, int after) {
         }
 
         @Override
         public void onTextChanged(CharSequence s, int start, int before, int count) {
-            super.onTextChanged(s, start, before, count);
-            try {
-                Phonenumber.PhoneNumber phoneNumber = parsePhoneNumber(s.toString());
-                if (mSelectedCountry == null || mSelectedCountry.getDialCode() != phoneNumber.getCountryCode()) {
-                    selectCountry(phoneNumber.getCountryCode());
+        }
+
+        @Override
+        public void afterTextChanged(Editable s) {
+            if (mSelfChange) {
+                return;
+            }
+            IntlPhoneInputMetrics.Listener metrics = IntlPhoneInputMetrics.get();
+            long startNanos = metrics != null ? System.nanoTime() : 0;
+            int parseCount = mParseCount;
+
+            format(s);
+            if (s.length() > 0) {
+                // Typing wins over a device number still being looked up
+                stopPrefill(false);
+            }
+            // The flag follows the first digits of an international number before any parse
+            selectCountryAt(mCountries.indexOfTablePosition(mEngine.findCountry(s, mSelectedCountry)));
+            String text = s.toString();
+            if (mAsyncValidation) {
+                scheduleValidation(text);
+            } else {
+                PhoneNumberState state = getNumberState(text);
+                selectCountryOf(state);
+                if (mIntlPhoneInputListener != null) {
+                    long validationNanos = metrics != null ? System.nanoTime() : 0;
+                    boolean valid = getNumberState(text).isValid();
+                    if (metrics != null) {
+                        metrics.onValidation(false, System.nanoTime() - validationNanos);
+                    }
+                    notifyValidity(valid);
+                }
+                publishNumberState(getNumberState(text));
+            }
+            if (metrics != null) {
+                metrics.onKeystroke(mParseCount - parseCount, System.nanoTime() - startNanos);
+            }
+        }
+
+        /**
+         * Replace the part of the text that differs from its formatted form
+         */
+        private void format(@NonNull Editable s) {
+            int cursor = Selection.getSelectionEnd(s);
+            String formatted = mFormatter.format(s, cursor >= 0 ? cursor : s.length());
+            int start = 0;
+            int end = s.length();
+            int formattedEnd = formatted.length();
+            while (start < end && start < formattedEnd && s.charAt(start) == formatted.charAt(start)) {
+                start++;
+            }
+            if (start == end && start == formattedEnd) {
+                return;
+            }
+            while (end > start && formattedEnd > start && s.charAt(end - 1) == formatted.charAt(formattedEnd - 1)) {
+                end--;
+                formattedEnd--;
+            }
+            mSelfChange = true;
+            s.replace(start, end, formatted, start, formattedEnd);
+            if (cursor >= 0) {
+                Selection.setSelection(s, Math.min(mFormatter.getCursor(), s.length()));
+            }
+            mSelfChange = false;
+        }
+    }
+
+    /**
+     * Switch country if the parsed number has the dial code or area code of another one
+     *
+     * @param state PhoneNumberState
+     */
+    private void selectCountryOf(@NonNull PhoneNumberState state) {
+        selectCountryAt(mCountries.indexOfTablePosition(mEngine.findCountry(state, mSelectedCountry)));
+    }
+
+    private void notifyValidity(boolean validity) {
+        if (mIntlPhoneInputListener != null) {
+            if (validity != mLastValidity) {
+                mIntlPhoneInputListener.done(IntlPhoneInput.this, validity);
+            }
+            mLastValidity = validity;
+        }
+    }
+
+    /**
+     * Parse and validate text on the validation executor once typing pauses
+     *
+     * @param text phone text
+     */
+    private void scheduleValidation(@NonNull final String text) {
+        final int generation = ++mValidationGeneration;
+        if (mPendingValidation != null) {
+            mMainHandler.removeCallbacks(mPendingValidation);
+        }
+        final String region = mSelectedCountry != null ? mSelectedCountry.getIso() : "";
+        final boolean publish = !mEventStreams.isEmpty();
+        mPendingValidation = new Runnable() {
+            @Override
+            public void run() {
+                mPendingValidation = null;
+                getValidationExecutor().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != mValidationGeneration) {
+                            return;
+                        }
+                        IntlPhoneInputMetrics.Listener metrics = IntlPhoneInputMetrics.get();
+                        long start = metrics != null ? System.nanoTime() : 0;
+                        final PhoneNumberState state = mEngine.parse(text, region);
+                        state.isValid();
+                        if (publish) {
+                            // Computed here rather than on the main thread by PhoneNumberEvent.of
+                            state.getE164();
+                            state.getType();
+                        }
+                        if (metrics != null) {
+                            metrics.onValidation(true, System.nanoTime() - start);
+                        }
+                        mMainHandler.post(new Runnable() {
+                            @Override
+                            public void run() {
+                                onValidated(generation, state);
+                            }
+                        });
+                    }
+                });
+            }
+        };
+        mMainHandler.postDelayed(mPendingValidation, mValidationDebounce);
+    }
+
+    private void onValidated(int generation, @NonNull PhoneNumberState state) {
+        if (generation != mValidationGeneration) {
+            return;
+        }
+        mNumberState = state;
+        selectCountryOf(state);
+        notifyValidity(state.isValid());
+        publishNumberState(state);
+    }
+
+    /**
+     * Subscribe to the number state: raw text, E.164, region, validity and type, coalesced per burst of edits.
+     * Configure the returned stream (debounce, distinct-until-changed, batching) right away;
+     * events are delivered on the main thread.
+     *
+     * @param listener PhoneNumberEventStream.Listener
+     * @return PhoneNumberEventStream, see {@link #unsubscribe(PhoneNumberEventStream)}
+     */
+    @NonNull
+    public PhoneNumberEventStream subscribe(@NonNull PhoneNumberEventStream.Listener listener) {
+        PhoneNumberEventStream stream = new PhoneNumberEventStream(listener, mEventScheduler);
+        mEventStreams.add(stream);
+        return stream;
+    }
+
+    /**
+     * Unsubscribe, pending events are dropped
+     *
+     * @param stream PhoneNumberEventStream of {@link #subscribe(PhoneNumberEventStream.Listener)}
+     */
+    public void unsubscribe(@NonNull PhoneNumberEventStream stream) {
+        stream.cancel();
+        mEventStreams.remove(stream);
+    }
+
+    private void publishNumberState(@NonNull PhoneNumberState state) {
+        if (mEventStreams.isEmpty()) {
+            return;
+        }
+        PhoneNumberEvent event = PhoneNumberEvent.of(state);
+        for (int i = 0; i < mEventStreams.size(); i++) {
+            mEventStreams.get(i).offer(event);
+        }
+    }
+
+    /**
+     * Drop the pending and running async validations
+     */
+    private void cancelValidation() {
+        mValidationGeneration++;
+        if (mPendingValidation != null) {
+            mMainHandler.removeCallbacks(mPendingValidation);
+            mPendingValidation = null;
+        }
+    }
+
+    @NonNull
+    private Executor getValidationExecutor() {
+        return mValidationExecutor != null ? mValidationExecutor : BackgroundExecutor.get();
+    }
+
+    /**
+     * Enable async validation: parsing and validation run on the validation executor after a quiet
+     * period of typing, results of outdated text are dropped and
+     * {@link IntlPhoneInputListener#done(View, boolean)} is still called on the main thread.
+     *
+     * @param asyncValidation boolean
+     */
+    public void setAsyncValidation(boolean asyncValidation) {
+        if (!asyncValidation) {
+            cancelValidation();
+        }
+        mAsyncValidation = asyncValidation;
+    }
+
+    /**
+     * Check if async validation is enabled
+     *
+     * @return boolean
+     */
+    public boolean isAsyncValidation() {
+        return mAsyncValidation;
+    }
+
+    /**
+     * Set country picker mode. The search index of {@link #PICKER_SEARCH} is built in the background.
+     *
+     * @param pickerMode {@link #PICKER_SPINNER} | {@link #PICKER_SEARCH}
+     */
+    public void setPickerMode(int pickerMode) {
+        mPickerMode = pickerMode;
+        prebuildSearchIndex();
+    }
+
+    /**
+     * Build the search index of {@link #PICKER_SEARCH} in the background, for the current display locale
+     */
+    private void prebuildSearchIndex() {
+        if (mPickerMode == PICKER_SEARCH && !isInEditMode() && CountrySearchIndex.peekDefault() == null) {
+            BackgroundExecutor.get().execute(new Runnable() {
+                @Override
+                public void run() {
+                    CountrySearchIndex.getDefault();
                 }
-            } catch (NumberParseException ignored) {
+            });
+        }
+    }
+
+    /**
+     * Get country picker mode
+     *
+     * @return {@link #PICKER_SPINNER} | {@link #PICKER_SEARCH}
+     */
+    public int getPickerMode() {
+        return mPickerMode;
+    }
+
+    /**
+     * Show the searchable country picker, whatever the picker mode
+     */
+    public void showCountryPicker() {
+        hideKeyboard();
+        new CountryPickerDialog(getContext(), mCountrySpinner.getPrompt(), mCountries, new CountryPickerAdapter.OnCountryClickListener() {
+            @Override
+            public void onCountryClick(int position) {
+                selectCountryAt(mCountries.indexOfTablePosition(position));
+            }
+        }).show();
+    }
+
+    /**
+     * Set executor of async validation
+     *
+     * @param executor Executor | null for the shared background thread of the library
+     */
+    public void setValidationExecutor(@Nullable Executor executor) {
+        mValidationExecutor = executor;
+    }
+
+    /**
+     * Set quiet period before an async validation starts
+     *
+     * @param debounce milliseconds
+     */
+    public void setValidationDebounce(long debounce) {
+        mValidationDebounce = debounce;
+    }
+
+    /**
+     * Enable looking up the device number (or else the network country) in the background once attached.
+     * Enabled by default, except for recycled rows; {@code app:prefillFromDevice="false"} skips it.
+     *
+     * @param prefillFromDevice boolean
+     */
+    public void setPrefillFromDevice(boolean prefillFromDevice) {
+        if (!prefillFromDevice) {
+            stopPrefill(false);
+        } else if (mPrefillTimeoutCallback == null) {
+            mPrefillPending = true;
+            if (getWindowToken() != null) {
+                startPrefill();
             }
+        }
+    }
+
+    /**
+     * Set time the device lookup may take, a later result is dropped
+     *
+     * @param timeout milliseconds
+     */
+    public void setPrefillTimeout(long timeout) {
+        mPrefillTimeout = timeout;
+    }
 
-            if (mIntlPhoneInputListener != null) {
-                boolean validity = isValid();
-                if (validity != lastValidity) {
-                    mIntlPhoneInputListener.done(IntlPhoneInput.this, validity);
+    /**
+     * Look up the device number on the background thread, the result is applied unless
+     * the user typed, a number was set or the timeout expired meanwhile
+     */
+    private void startPrefill() {
+        mPrefillPending = false;
+        final int generation = mPrefillGeneration;
+        final Context context = getContext().getApplicationContext();
+        final String region = mSelectedCountry != null ? mSelectedCountry.getIso() : null;
+        mPrefillTimeoutCallback = new Runnable() {
+            @Override
+            public void run() {
+                stopPrefill(false);
+            }
+        };
+        mMainHandler.postDelayed(mPrefillTimeoutCallback, mPrefillTimeout);
+        BackgroundExecutor.get().execute(new Runnable() {
+            @Override
+            public void run() {
+                if (generation != mPrefillGeneration) {
+                    return;
+                }
+                String phone = null;
+                String iso = null;
+                try {
+                    TelephonyManager telephonyManager = (TelephonyManager) context.getSystemService(Context.TELEPHONY_SERVICE);
+                    if (telephonyManager != null) {
+                        phone = telephonyManager.getLine1Number();
+                        if (phone == null || phone.isEmpty()) {
+                            iso = telephonyManager.getNetworkCountryIso();
+                        }
+                    }
+                } catch (SecurityException ignored) {
+                    // No permission: the locale country stays
+                }
+                final PhoneNumberState state = phone != null && !phone.isEmpty() ? mEngine.parse(phone, region) : null;
+                if (state != null) {
+                    state.getNational();
                 }
-                lastValidity = validity;
+                final String networkIso = iso;
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        onPrefilled(generation, region, state, networkIso);
+                    }
+                });
             }
+        });
+    }
+
+    private void onPrefilled(int generation, @Nullable String region, @Nullable PhoneNumberState state, @Nullable String iso) {
+        if (generation != mPrefillGeneration) {
+            return;
+        }
+        stopPrefill(false);
+        String selected = mSelectedCountry != null ? mSelectedCountry.getIso() : null;
+        if (state != null && state.getNational() != null) {
+            setNumberState(state);
+        } else if (iso != null && !iso.isEmpty() && !mDefaultCountrySet && (selected == null || selected.equals(region))) {
+            setEmptyDefault(iso);
         }
     }
 
+    /**
+     * Give up the device lookup
+     *
+     * @param resume true to start it again on the next attach if it was pending or running
+     */
+    private void stopPrefill(boolean resume) {
+        boolean running = mPrefillTimeoutCallback != null;
+        if (running) {
+            mMainHandler.removeCallbacks(mPrefillTimeoutCallback);
+            mPrefillTimeoutCallback = null;
+            mPrefillGeneration++;
+        }
+        mPrefillPending = resume && (mPrefillPending || running);
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        if (mPrefillPending) {
+            startPrefill();
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        cancelValidation();
+        stopPrefill(true);
+    }
+
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        SavedState savedState = new SavedState(super.onSaveInstanceState());
+        savedState.mIso = mSelectedCountry != null ? mSelectedCountry.getIso() : null;
+        savedState.mPrefillPending = mPrefillPending || mPrefillTimeoutCallback != null;
+        PhoneNumberState state = mNumberState;
+        if (state != null) {
+            savedState.mText = state.getText();
+            savedState.mRegion = state.getRegion();
+            savedState.mPhoneNumber = state.getPhoneNumber();
+            savedState.mValid = state.isValid();
+        }
+        return savedState;
+    }
+
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        SavedState savedState = (SavedState) state;
+        super.onRestoreInstanceState(savedState.getSuperState());
+        if (!savedState.mPrefillPending) {
+            stopPrefill(false);
+        }
+        selectCountryAt(mCountries.indexOfIso(savedState.mIso));
+        if (savedState.mText != null && savedState.mRegion != null) {
+            // The phone text restores itself afterwards and matches this state, so it is not parsed again
+            mNumberState = PhoneNumberState.restore(mEngine.getPhoneUtil(), savedState.mText, savedState.mRegion,
+                    savedState.mPhoneNumber, savedState.mValid);
+        }
+    }
+
+    /**
+     * Selected country, parsed number and whether the device lookup is still to be done,
+     * so a configuration change neither queries the device nor parses the number again
+     */
+    static class SavedState extends BaseSavedState {
+        @Nullable
+        String mIso;
+        @Nullable
+        String mText;
+        @Nullable
+        String mRegion;
+        @Nullable
+        Phonenumber.PhoneNumber mPhoneNumber;
+        boolean mValid;
+        boolean mPrefillPending;
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(@NonNull Parcel in) {
+            super(in);
+            mIso = in.readString();
+            mText = in.readString();
+            mRegion = in.readString();
+            mValid = in.readInt() != 0;
+            mPrefillPending = in.readInt() != 0;
+            if (in.readInt() != 0) {
+                Phonenumber.PhoneNumber number = new Phonenumber.PhoneNumber()
+                        .setCountryCode(in.readInt())
+                        .setNationalNumber(in.readLong());
+                if (in.readInt() != 0) {
+                    number.setItalianLeadingZero(true).setNumberOfLeadingZeros(in.readInt());
+                }
+                String extension = in.readString();
+                if (extension != null) {
+                    number.setExtension(extension);
+                }
+                String rawInput = in.readString();
+                if (rawInput != null) {
+                    number.setRawInput(rawInput);
+                }
+                int source = in.readInt();
+                if (source >= 0) {
+                    number.setCountryCodeSource(Phonenumber.PhoneNumber.CountryCodeSource.values()[source]);
+                }
+                String carrierCode = in.readString();
+                if (carrierCode != null) {
+                    number.setPreferredDomesticCarrierCode(carrierCode);
+                }
+                mPhoneNumber = number;
+            }
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeString(mIso);
+            out.writeString(mText);
+            out.writeString(mRegion);
+            out.writeInt(mValid ? 1 : 0);
+            out.writeInt(mPrefillPending ? 1 : 0);
+            Phonenumber.PhoneNumber number = mPhoneNumber;
+            out.writeInt(number != null ? 1 : 0);
+            if (number != null) {
+                out.writeInt(number.getCountryCode());
+                out.writeLong(number.getNationalNumber());
+                out.writeInt(number.isItalianLeadingZero() ? 1 : 0);
+                if (number.isItalianLeadingZero()) {
+                    out.writeInt(number.getNumberOfLeadingZeros());
+                }
+                out.writeString(number.hasExtension() ? number.getExtension() : null);
+                out.writeString(number.hasRawInput() ? number.getRawInput() : null);
+                out.writeInt(number.hasCountryCodeSource() ? number.getCountryCodeSource().ordinal() : -1);
+                out.writeString(number.hasPreferredDomesticCarrierCode() ? number.getPreferredDomesticCarrierCode() : null);
+            }
+        }
+
+        public static final Parcelable.Creator<SavedState> CREATOR = new Parcelable.Creator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel in) {
+                return new SavedState(in);
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
+    }
+
+    @Override
+    protected void onConfigurationChanged(Configuration newConfig) {
+        super.onConfigurationChanged(newConfig);
+        CountryDisplayNames.setLocale(getLocale(newConfig));
+        prebuildSearchIndex();
+    }
+
+    /**
+     * Get primary locale of configuration
+     *
+     * @param configuration Configuration
+     * @return Locale
+     */
+    @NonNull
+    @SuppressWarnings("deprecation")
+    private static Locale getLocale(@NonNull Configuration configuration) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N && !configuration.getLocales().isEmpty()) {
+            return configuration.getLocales().get(0);
+        }
+        return configuration.locale != null ? configuration.locale : Locale.getDefault();
+    }
+
+    /**
+     * Bind a number, i.e. from RecyclerView.Adapter.onBindViewHolder.
+     * Nothing is looked up on the device and the validity listener is not called;
+     * binding the same number again reuses its parsed state.
+     *
+     * @param number E.164 or national format | null for none
+     * @param region ISO2 of the default region (the country shown when there is no number) | null for the current one
+     */
+    public void bind(@Nullable String number, @Nullable String region) {
+        cancelValidation();
+        stopPrefill(false);
+        if (region != null) {
+            selectCountryAt(mCountries.indexOfIso(region));
+        }
+        String defaultRegion = mSelectedCountry != null ? mSelectedCountry.getIso() : "";
+
+        mPhoneEdit.removeTextChangedListener(mPhoneNumberWatcher);
+        if (number == null || number.isEmpty()) {
+            mNumberState = null;
+            mPhoneEdit.setText(null);
+        } else {
+            PhoneNumberState state = mEngine.update(mBoundState, number, defaultRegion);
+            mBoundState = state;
+            selectCountryOf(state);
+            String selected = mSelectedCountry != null ? mSelectedCountry.getIso() : "";
+            String text = state.getDisplayText(selected);
+            if (text != null) {
+                mNumberState = state.withText(text, selected);
+                mPhoneEdit.setText(text);
+            } else {
+                mNumberState = state;
+                mPhoneEdit.setText(number);
+            }
+        }
+        mPhoneEdit.addTextChangedListener(mPhoneNumberWatcher);
+        mLastValidity = mIntlPhoneInputListener != null && mNumberState != null && mNumberState.isValid();
+    }
+
     /**
      * Set Number
      *
      * @param number E.164 format or national format
      */
     public void setNumber(@Nullable String number) {
-        try {
-            Phonenumber.PhoneNumber phoneNumber = parsePhoneNumber(number);
-            if (mSelectedCountry == null || mSelectedCountry.getDialCode() != phoneNumber.getCountryCode()) {
-                selectCountry(phoneNumber.getCountryCode());
-            }
-            mPhoneEdit.setText(mPhoneUtil.format(phoneNumber, PhoneNumberUtil.PhoneNumberFormat.NATIONAL));
-        } catch (NumberParseException ignored) {
+        if (number == null) {
+            return;
+        }
+        stopPrefill(false);
+        setNumberState(mEngine.parse(number, mSelectedCountry != null ? mSelectedCountry.getIso() : null));
+    }
+
+    /**
+     * Select the country of a parsed number and show it in national format, without parsing it again.
+     * A number of a country missing from the country list is shown in E.164 instead.
+     *
+     * @param state PhoneNumberState
+     */
+    private void setNumberState(@NonNull PhoneNumberState state) {
+        selectCountryOf(state);
+        String region = mSelectedCountry != null ? mSelectedCountry.getIso() : "";
+        String text = state.getDisplayText(region);
+        if (text != null) {
+            mNumberState = state.withText(text, region);
+            mPhoneEdit.setText(text);
         }
     }
 
@@ -362,13 +1129,7 @@ public class IntlPhoneInput extends RelativeLayout {
      */
     @Nullable
     public String getNumber() {
-        Phonenumber.PhoneNumber phoneNumber = getPhoneNumber();
-
-        if (phoneNumber == null) {
-            return null;
-        }
-
-        return mPhoneUtil.format(phoneNumber, PhoneNumberUtil.PhoneNumberFormat.E164);
+        return getNumberState().getE164();
     }
 
     @Nullable
@@ -376,12 +1137,6 @@ public class IntlPhoneInput extends RelativeLayout {
         return getNumber();
     }
 
-    @NonNull
-    private Phonenumber.PhoneNumber parsePhoneNumber(@Nullable String number) throws NumberParseException {
-        String defaultRegion = mSelectedCountry != null ? mSelectedCountry.getIso() : "";
-        return mPhoneUtil.parseAndKeepRawInput(number, defaultRegion);
-    }
-
     /**
      * Get PhoneNumber object
      *
@@ -389,11 +1144,28 @@ public class IntlPhoneInput extends RelativeLayout {
      */
     @Nullable
     public Phonenumber.PhoneNumber getPhoneNumber() {
-        try {
-            return parsePhoneNumber(mPhoneEdit.getText().toString());
-        } catch (NumberParseException ignored) {
-            return null;
+        return getNumberState().getPhoneNumber();
+    }
+
+    /**
+     * Get parsed state of the current text for the selected country.
+     * The text is only parsed again once it or the country has changed.
+     *
+     * @return PhoneNumberState
+     */
+    @NonNull
+    public PhoneNumberState getNumberState() {
+        return getNumberState(mPhoneEdit.getText().toString());
+    }
+
+    @NonNull
+    private PhoneNumberState getNumberState(@NonNull String text) {
+        PhoneNumberState state = mEngine.update(mNumberState, text, mSelectedCountry != null ? mSelectedCountry.getIso() : null);
+        if (state != mNumberState) {
+            mParseCount++;
+            mNumberState = state;
         }
+        return state;
     }
 
     /**
@@ -406,14 +1178,42 @@ public class IntlPhoneInput extends RelativeLayout {
         return mSelectedCountry;
     }
 
+    /**
+     * Set countries of the picker, e.g. {@code CountryList.all().only(isos)} or {@code .preferring(isos)}.
+     * The selection is kept if the country is still offered, else the first country is selected.
+     *
+     * @param countries CountryList
+     */
+    public void setCountries(@NonNull CountryList countries) {
+        if (countries.equals(mCountries)) {
+            return;
+        }
+        int position = countries.indexOf(mSelectedCountry);
+        mCountries = countries;
+        mCountrySpinnerAdapter = createAdapter();
+        mCountrySpinner.setAdapter(mCountrySpinnerAdapter);
+        mCountrySpinner.setEnabled(isEnabled() && countries.size() > 1);
+        mSelectedCountry = null;
+        selectCountryAt(position >= 0 || countries.isEmpty() ? position : 0);
+    }
+
+    /**
+     * Get countries of the picker
+     *
+     * @return CountryList
+     */
+    @NonNull
+    public CountryList getCountries() {
+        return mCountries;
+    }
+
     /**
      * Check if number is valid
      *
      * @return boolean
      */
     public boolean isValid() {
-        Phonenumber.PhoneNumber phoneNumber = getPhoneNumber();
-        return phoneNumber != null && mPhoneUtil.isValidNumber(phoneNumber);
+        return getNumberState().isValid();
     }
 
     /**
@@ -472,7 +1272,7 @@ public class IntlPhoneInput extends RelativeLayout {
         super.setEnabled(enabled);
         mTextInputLayout.setEnabled(enabled);
         mPhoneEdit.setEnabled(enabled);
-        if (Countries.COUNTRIES.size() <= 1) {
+        if (mCountries.size() <= 1) {
             mCountrySpinner.setEnabled(false);
         } else {
             mCountrySpinner.setEnabled(enabled);
@@ -0,0 +1,117 @@
+package net.rimoto.intlphoneinput;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Optional timings and counters of the library's hot paths, e.g. to feed app telemetry.
+ * Nothing is measured while no listener is registered.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class IntlPhoneInputMetrics {
+    @Nullable
+    private static volatile Listener sListener;
+
+    private IntlPhoneInputMetrics() {
+    }
+
+    /**
+     * Set metrics listener, process wide. Register it before the first IntlPhoneInput or
+     * {@link MetadataWarmUp} (e.g. in {@code Application.onCreate}) to receive metadata load times.
+     *
+     * @param listener Listener | null to stop measuring
+     */
+    public static void setListener(@Nullable Listener listener) {
+        sListener = listener;
+    }
+
+    /**
+     * Get metrics listener
+     *
+     * @return Listener | null if none
+     */
+    @Nullable
+    static Listener get() {
+        return sListener;
+    }
+
+    /**
+     * Receives the metrics on the thread the operation ran on
+     */
+    public interface Listener {
+        /**
+         * Text of a phone input changed
+         *
+         * @param parses        libphonenumber parses the keystroke caused, 0 if the parse result was reused
+         * @param durationNanos time spent in the text watcher
+         */
+        void onKeystroke(int parses, long durationNanos);
+
+        /**
+         * A number was validated
+         *
+         * @param async        true if it ran on the validation executor
+         * @param latencyNanos time of parsing and validation
+         */
+        void onValidation(boolean async, long latencyNanos);
+
+        /**
+         * The selected country changed
+         *
+         * @param durationNanos time of switching watcher and hint
+         */
+        void onCountrySwitch(long durationNanos);
+
+        /**
+         * The example number hint was set
+         *
+         * @param durationNanos time of looking it up and setting it
+         */
+        void onHint(long durationNanos);
+
+        /**
+         * libphonenumber loaded a metadata file
+         *
+         * @param fileName      metadata file
+         * @param durationNanos time from opening to closing it, including deserialization
+         */
+        void onMetadataLoaded(@NonNull String fileName, long durationNanos);
+
+        /**
+         * The country adapter bound a row
+         *
+         * @param dropDown      true for a dropdown row, false for the selected value
+         * @param durationNanos bind time
+         */
+        void onAdapterBind(boolean dropDown, long durationNanos);
+    }
+
+    /**
+     * Listener with empty methods, override the metrics of interest
+     */
+    public static class SimpleListener implements Listener {
+        @Override
+        public void onKeystroke(int parses, long durationNanos) {
+        }
+
+        @Override
+        public void onValidation(boolean async, long latencyNanos) {
+        }
+
+        @Override
+        public void onCountrySwitch(long durationNanos) {
+        }
+
+        @Override
+        public void onHint(long durationNanos) {
+        }
+
+        @Override
+        public void onMetadataLoaded(@NonNull String fileName, long durationNanos) {
+        }
+
+        @Override
+        public void onAdapterBind(boolean dropDown, long durationNanos) {
+        }
+    }
+}
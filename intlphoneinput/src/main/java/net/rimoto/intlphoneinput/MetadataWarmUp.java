@@ -0,0 +1,138 @@
+package net.rimoto.intlphoneinput;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.telephony.TelephonyManager;
+
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.Phonenumber;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Preloads libphonenumber metadata on a background thread, so the first parse of a region
+ * does not load it on the main thread.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class MetadataWarmUp {
+
+    /**
+     * Warm-up listener, called on the main thread
+     */
+    public interface WarmUpListener {
+        void done(@NonNull Set<String> regions, long durationMillis);
+    }
+
+    private MetadataWarmUp() {
+    }
+
+    /**
+     * Warm up the default regions, see {@link #getDefaultRegions(Context)}, resolved on the background thread
+     *
+     * @param context Context
+     */
+    public static void start(@NonNull Context context) {
+        final Context appContext = context.getApplicationContext() != null ? context.getApplicationContext() : context;
+        final PhoneNumberUtil phoneUtil = PhoneUtil.get(context);
+        BackgroundExecutor.get().execute(new Runnable() {
+            @Override
+            public void run() {
+                warmUp(phoneUtil, getDefaultRegions(appContext), null);
+            }
+        });
+    }
+
+    /**
+     * Warm up regions
+     *
+     * @param context  Context
+     * @param regions  ISO2 of regions, any case
+     * @param listener WarmUpListener | null
+     */
+    public static void start(@NonNull Context context, @NonNull Collection<String> regions, @Nullable final WarmUpListener listener) {
+        final PhoneNumberUtil phoneUtil = PhoneUtil.get(context);
+        final Set<String> isos = new LinkedHashSet<>();
+        for (String region : regions) {
+            addRegion(isos, region);
+        }
+        BackgroundExecutor.get().execute(new Runnable() {
+            @Override
+            public void run() {
+                warmUp(phoneUtil, isos, listener);
+            }
+        });
+    }
+
+    /**
+     * Warm up every region then report to listener on the main thread
+     */
+    private static void warmUp(@NonNull PhoneNumberUtil phoneUtil, @NonNull final Set<String> isos,
+                               @Nullable final WarmUpListener listener) {
+        long start = System.nanoTime();
+        for (String iso : isos) {
+            warmUp(phoneUtil, iso);
+        }
+        final long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (listener != null) {
+            new Handler(Looper.getMainLooper()).post(new Runnable() {
+                @Override
+                public void run() {
+                    listener.done(Collections.unmodifiableSet(isos), durationMillis);
+                }
+            });
+        }
+    }
+
+    /**
+     * Load the metadata of region and compile the patterns a mobile number goes through
+     */
+    private static void warmUp(@NonNull PhoneNumberUtil phoneUtil, @NonNull String iso) {
+        if (phoneUtil.getMetadataForRegion(iso) == null) {
+            return;
+        }
+        Phonenumber.PhoneNumber example = phoneUtil.getExampleNumberForType(iso, PhoneNumberUtil.PhoneNumberType.MOBILE);
+        if (example != null) {
+            phoneUtil.isValidNumber(example);
+        }
+    }
+
+    /**
+     * Default regions: device locale, network and SIM country, the {@code defaultCountry} attribute values
+     * and the main country of every dial code shared by several countries of the registry.
+     * Network and SIM country are binder calls to the telephony service, better made off the main thread.
+     *
+     * @param context Context
+     * @return ISO2 of regions, upper case
+     */
+    @NonNull
+    public static Set<String> getDefaultRegions(@NonNull Context context) {
+        Set<String> regions = new LinkedHashSet<>();
+        addRegion(regions, Locale.getDefault().getCountry());
+        TelephonyManager telephonyManager = (TelephonyManager) context.getSystemService(Context.TELEPHONY_SERVICE);
+        if (telephonyManager != null) {
+            addRegion(regions, telephonyManager.getNetworkCountryIso());
+            addRegion(regions, telephonyManager.getSimCountryIso());
+        }
+        addRegion(regions, IntlPhoneInput.getDefaultCountryIso(IntlPhoneInput.COUNTRY_ID));
+        for (Country country : Countries.COUNTRIES) {
+            if (country.getPriority() > 0) {
+                addRegion(regions, Countries.COUNTRIES.get(Countries.indexOfDialCode(country.getDialCode())).getIso());
+            }
+        }
+        return regions;
+    }
+
+    private static void addRegion(@NonNull Set<String> regions, @Nullable String region) {
+        if (region != null && !region.isEmpty()) {
+            regions.add(region.toUpperCase(Locale.US));
+        }
+    }
+}
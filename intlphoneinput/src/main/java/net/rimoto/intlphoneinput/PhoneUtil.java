@@ -0,0 +1,49 @@
+package net.rimoto.intlphoneinput;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+
+/**
+ * The PhoneNumberUtil shared by the library: the default one, or one reading the trimmed
+ * metadata assets when the library is built with {@code intlphoneinput.metadataRegions}.
+ * The engine of trimmed metadata also becomes {@link PhoneNumberEngine#getDefault()}, since the jar has none.
+ * Metadata load times are only measured by an instance created while metrics are registered.
+ */
+final class PhoneUtil {
+    @Nullable
+    private static PhoneNumberUtil sInstance;
+    @Nullable
+    private static PhoneNumberEngine sEngine;
+
+    private PhoneUtil() {
+    }
+
+    @NonNull
+    static synchronized PhoneNumberUtil get(@NonNull Context context) {
+        if (sInstance == null) {
+            if (!BuildConfig.METADATA_REGIONS.isEmpty()) {
+                sInstance = PhoneNumberUtil.createInstance(new TimedMetadataLoader(
+                        new AssetMetadataLoader(context.getApplicationContext().getAssets())));
+                sEngine = new PhoneNumberEngine(sInstance);
+                PhoneNumberEngine.setDefault(sEngine);
+            } else if (IntlPhoneInputMetrics.get() != null) {
+                sInstance = PhoneNumberUtil.createInstance(new TimedMetadataLoader(null));
+            } else {
+                sInstance = PhoneNumberUtil.getInstance();
+            }
+        }
+        return sInstance;
+    }
+
+    @NonNull
+    static synchronized PhoneNumberEngine getEngine(@NonNull Context context) {
+        PhoneNumberUtil phoneUtil = get(context);
+        if (sEngine == null) {
+            sEngine = new PhoneNumberEngine(phoneUtil);
+        }
+        return sEngine;
+    }
+}
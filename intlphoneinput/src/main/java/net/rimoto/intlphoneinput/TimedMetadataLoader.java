@@ -0,0 +1,69 @@
+package net.rimoto.intlphoneinput;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.google.i18n.phonenumbers.MetadataLoader;
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reports metadata load times to {@link IntlPhoneInputMetrics}.
+ * libphonenumber closes the stream once the metadata is read, so open to close is the load time.
+ */
+final class TimedMetadataLoader implements MetadataLoader {
+    @Nullable
+    private final MetadataLoader mDelegate;
+
+    /**
+     * Constructor
+     *
+     * @param delegate loader | null for the metadata of the libphonenumber jar
+     */
+    TimedMetadataLoader(@Nullable MetadataLoader delegate) {
+        mDelegate = delegate;
+    }
+
+    @Nullable
+    @Override
+    public InputStream loadMetadata(@NonNull String metadataFileName) {
+        IntlPhoneInputMetrics.Listener metrics = IntlPhoneInputMetrics.get();
+        long start = metrics != null ? System.nanoTime() : 0;
+        InputStream in = mDelegate != null
+                ? mDelegate.loadMetadata(metadataFileName)
+                : PhoneNumberUtil.class.getResourceAsStream(metadataFileName);
+        if (in == null || metrics == null) {
+            return in;
+        }
+        return new TimedInputStream(in, metadataFileName, metrics, start);
+    }
+
+    private static final class TimedInputStream extends FilterInputStream {
+        @NonNull
+        private final String mFileName;
+        @NonNull
+        private final IntlPhoneInputMetrics.Listener mMetrics;
+        private final long mStart;
+        private boolean mClosed;
+
+        TimedInputStream(@NonNull InputStream in, @NonNull String fileName,
+                         @NonNull IntlPhoneInputMetrics.Listener metrics, long start) {
+            super(in);
+            mFileName = fileName;
+            mMetrics = metrics;
+            mStart = start;
+        }
+
+        @Override
+        public void close() throws IOException {
+            super.close();
+            if (!mClosed) {
+                mClosed = true;
+                mMetrics.onMetadataLoaded(mFileName, System.nanoTime() - mStart);
+            }
+        }
+    }
+}